@@ -0,0 +1,14 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+/** Simple listener for revealed chars. You can derive from this and only override what you are interested in. */
+public class CharAdapter implements CharListener {
+
+    @Override
+    public void onChars(CharSequence text, int start, int end) {
+    }
+
+    @Override
+    public void onChar(char ch, int glyphIndex) {
+    }
+
+}
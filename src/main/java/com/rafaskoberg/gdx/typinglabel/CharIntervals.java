@@ -0,0 +1,80 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.utils.IntFloatMap;
+import com.badlogic.gdx.utils.ObjectFloatMap;
+import com.badlogic.gdx.utils.ObjectFloatMap.Entry;
+
+import java.util.Arrays;
+
+/**
+ * Table of chars and their respective interval multipliers, of which the interval to the next char should be multiplied
+ * for. Latin-1 chars are looked up in a dense array and all others in a sparse map, so lookups don't box chars. Chars
+ * without a multiplier default to {@code 1}.
+ * <p>
+ * Labels use the global {@link TypingConfig#INTERVAL_MULTIPLIERS_BY_CHAR} unless they're given their own table through
+ * {@link TypingLabel#setCharIntervals(CharIntervals)}.
+ */
+public class CharIntervals {
+    private static final int DENSE_SIZE = 256;
+
+    private final float[]     dense  = new float[DENSE_SIZE];
+    private final IntFloatMap sparse = new IntFloatMap();
+    int version = 0;
+
+    /** Creates an empty table, where all chars have a multiplier of {@code 1}. */
+    public CharIntervals() {
+        Arrays.fill(dense, 1);
+    }
+
+    /** Creates a table with the given multipliers, such as {@link TypingConfig#INTERVAL_MULTIPLIERS_BY_CHAR}. */
+    public CharIntervals(ObjectFloatMap<Character> multipliers) {
+        this();
+        putAll(multipliers);
+    }
+
+    /** Creates a copy of the given table. */
+    public CharIntervals(CharIntervals intervals) {
+        System.arraycopy(intervals.dense, 0, dense, 0, DENSE_SIZE);
+        sparse.putAll(intervals.sparse);
+    }
+
+    /** Returns the interval multiplier of the given char, or {@code 1} if it doesn't have one. */
+    public float get(char c) {
+        return c < DENSE_SIZE ? dense[c] : sparse.get(c, 1);
+    }
+
+    /** Sets the interval multiplier of the given char. */
+    public void put(char c, float multiplier) {
+        if(c < DENSE_SIZE) {
+            dense[c] = multiplier;
+        } else {
+            sparse.put(c, multiplier);
+        }
+        version++;
+    }
+
+    /** Sets all the given multipliers, keeping the ones of other chars. */
+    public void putAll(ObjectFloatMap<Character> multipliers) {
+        for(Entry<Character> entry : multipliers.entries()) {
+            put(entry.key, entry.value);
+        }
+    }
+
+    /** Resets the interval multiplier of the given char back to {@code 1}. */
+    public void remove(char c) {
+        if(c < DENSE_SIZE) {
+            dense[c] = 1;
+        } else {
+            sparse.remove(c, 1);
+        }
+        version++;
+    }
+
+    /** Resets the interval multipliers of all chars back to {@code 1}. */
+    public void clear() {
+        Arrays.fill(dense, 1);
+        sparse.clear();
+        version++;
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+/**
+ * Listener for revealed chars that doesn't box them, unlike {@link TypingListener#onChar(Character)}. Register it with
+ * {@link TypingLabel#addCharListener(CharListener)}.
+ *
+ * @see CharAdapter
+ */
+public interface CharListener {
+
+    /**
+     * Called once per frame with the range of chars revealed in that frame, if any. Cheaper than
+     * {@link #onChar(char, int)} when only the amount of revealed chars matters, like for playing a single typing sound
+     * per frame.
+     *
+     * @param text  The label's text, stripped from tokens. Only valid during this call.
+     * @param start Index of the first revealed char, inclusive.
+     * @param end   Index of the last revealed char, exclusive.
+     */
+    public void onChars(CharSequence text, int start, int end);
+
+    /**
+     * Called when a new character is displayed. May be called many times per frame depending on the label
+     * configurations and text speed. Not called for chars revealed by {@link TypingLabel#skipToTheEnd()}.
+     *
+     * @param ch         The revealed char.
+     * @param glyphIndex Index of the last glyph revealed so far, which doesn't advance for line breaks.
+     */
+    public void onChar(char ch, int glyphIndex);
+
+}
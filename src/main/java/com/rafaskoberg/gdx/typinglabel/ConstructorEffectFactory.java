@@ -0,0 +1,62 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.reflect.Constructor;
+import com.badlogic.gdx.utils.reflect.ReflectionException;
+
+/**
+ * Fallback {@link EffectFactory} for effects registered by class only. The constructor is looked up once, on first use,
+ * and reused for all following instances. Constructors receiving {@link EffectParams} are preferred over the ones
+ * receiving a String array.
+ */
+final class ConstructorEffectFactory implements EffectFactory {
+    private static final int PARAMS_NONE   = 0;
+    private static final int PARAMS_ARRAY  = 1;
+    private static final int PARAMS_OBJECT = 2;
+
+    private final    Class<? extends Effect> effectClass;
+    private volatile Constructor             constructor;
+    private          int                     paramsType;
+
+    ConstructorEffectFactory(Class<? extends Effect> effectClass) {
+        this.effectClass = effectClass;
+    }
+
+    @Override
+    public Effect create(TypingLabel label, EffectParams params) {
+        try {
+            Constructor constructor = this.constructor;
+            if(constructor == null) {
+                constructor = findConstructor();
+                this.constructor = constructor;
+            }
+            switch(paramsType) {
+                case PARAMS_OBJECT:
+                    return (Effect) constructor.newInstance(label, params);
+                case PARAMS_ARRAY:
+                    return (Effect) constructor.newInstance(label, params.toArray());
+                default:
+                    return (Effect) constructor.newInstance(label);
+            }
+        } catch(ReflectionException e) {
+            String message = "Failed to initialize effect " + effectClass + ". Make sure the class has a constructor with TypingLabel as first parameter and optionally EffectParams or String[] as second, or register it with an EffectFactory.";
+            throw new IllegalStateException(message, e);
+        }
+    }
+
+    /** Finds the constructor receiving {@link EffectParams}, falling back to the first one, and stores its params type. */
+    private Constructor findConstructor() {
+        Constructor[] constructors = ClassReflection.getConstructors(effectClass);
+        for(Constructor constructor : constructors) {
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            if(parameterTypes.length == 2 && parameterTypes[1] == EffectParams.class) {
+                paramsType = PARAMS_OBJECT;
+                return constructor;
+            }
+        }
+        Constructor constructor = constructors[0];
+        paramsType = constructor.getParameterTypes().length >= 2 ? PARAMS_ARRAY : PARAMS_NONE;
+        return constructor;
+    }
+
+}
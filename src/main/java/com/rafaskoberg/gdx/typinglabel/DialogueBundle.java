@@ -0,0 +1,263 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Read-only view over texts compiled ahead of time by {@link DialogueBundleCompiler}. Lines are decoded straight from
+ * the underlying {@link ByteBuffer} only when requested, so loading a bundle doesn't materialize its texts on the heap.
+ * Start a line with {@link TypingLabel#restart(DialogueBundle, int)}, which doesn't parse any tokens, unless a variable
+ * value contains tokens itself.
+ * <p>
+ * Bundles are compiled with color markup enabled, and with the token delimiter, registered effects and token values of
+ * {@link TypingConfig} at compile time, so these should match the runtime configuration. Lines with effects are parsed
+ * again if the registered effects don't match, and effect tokens that aren't registered anymore are ignored.
+ */
+public class DialogueBundle {
+    static final int  MAGIC           = 0x544C4231; // TLB1
+    static final int  FORMAT_VERSION  = 2;
+    static final byte FLAG_DEPENDENT  = 1; // Line has tokens that depend on the label
+    static final byte FLAG_SOURCE     = 2; // Line stores its source, since it has dependent, effect or unknown tokens
+    static final int  NULL_STRING     = -1;
+
+    private final ByteBuffer     buffer;
+    private final TokenDelimiter delimiter;
+    private final int            effectFingerprint;
+    private final boolean        hasFingerprint;
+    private final String         defaultToken;
+    private final String[]       tokenNames;
+    private final int            lineCount;
+    private final int            offsetsPosition;
+
+    /**
+     * Creates a bundle backed by the given buffer, such as a memory-mapped file or a direct buffer. The buffer's content
+     * must not change afterwards.
+     */
+    public DialogueBundle(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+
+        // Validate header
+        int position = 0;
+        if(this.buffer.getInt(position) != MAGIC) {
+            throw new GdxRuntimeException("Invalid dialogue bundle.");
+        }
+        position += 4;
+        int formatVersion = this.buffer.getInt(position);
+        if(formatVersion < 1 || formatVersion > FORMAT_VERSION) {
+            throw new GdxRuntimeException("Unsupported dialogue bundle version: " + formatVersion);
+        }
+        position += 4;
+        this.delimiter = TokenDelimiter.values()[this.buffer.get(position)];
+        position += 1;
+
+        // Fingerprint of registered effects, which the first version didn't have
+        this.hasFingerprint = formatVersion >= 2;
+        this.effectFingerprint = hasFingerprint ? this.buffer.getInt(position) : 0;
+        if(hasFingerprint) position += 4;
+        this.defaultToken = readString(position);
+        position = skipString(position);
+
+        // Read token names, which are shared by all lines
+        int tokenNameCount = this.buffer.getInt(position);
+        position += 4;
+        this.tokenNames = new String[tokenNameCount];
+        for(int i = 0; i < tokenNameCount; i++) {
+            tokenNames[i] = readString(position);
+            position = skipString(position);
+        }
+
+        // Lines are only located here, and decoded on demand
+        this.lineCount = this.buffer.getInt(position);
+        this.offsetsPosition = position + 4;
+    }
+
+    /**
+     * Loads a bundle from the given file. The file is memory-mapped when possible, otherwise it's copied to a direct
+     * buffer.
+     */
+    public static DialogueBundle load(FileHandle file) {
+        ByteBuffer buffer;
+        try {
+            buffer = file.map();
+        } catch(GdxRuntimeException e) {
+            byte[] bytes = file.readBytes();
+            buffer = BufferUtils.newByteBuffer(bytes.length);
+            buffer.put(bytes);
+            buffer.flip();
+        }
+        return new DialogueBundle(buffer);
+    }
+
+    /** Returns how many lines this bundle has. */
+    public int size() {
+        return lineCount;
+    }
+
+    /** Returns the token delimiter this bundle was compiled with. */
+    public TokenDelimiter getDelimiter() {
+        return delimiter;
+    }
+
+    /** Returns the default token this bundle was compiled with. */
+    public String getDefaultToken() {
+        return defaultToken;
+    }
+
+    /**
+     * Returns the text of the given line, stripped from tokens. Tokens that depend on the label, such as variables,
+     * are not replaced.
+     */
+    public String getText(int line) {
+        return readString(getLinePosition(line) + 1);
+    }
+
+    /** Returns the source text of the given line, or null if it didn't need to be stored. */
+    String getSource(int line) {
+        int position = getLinePosition(line);
+        if((buffer.get(position) & (FLAG_DEPENDENT | FLAG_SOURCE)) == 0) return null;
+        return readString(skipString(position + 1));
+    }
+
+    /**
+     * Sets the text and token entries of the given line to the label, resolving variables with the label's state.
+     * Returns false if that's not possible without parsing, which happens if a variable value has tokens itself, or if
+     * the line has effects and the registered effects changed since the bundle was compiled.
+     */
+    boolean apply(int line, TypingLabel label) {
+        if(delimiter != TypingConfig.TOKEN_DELIMITER) {
+            throw new IllegalStateException("Dialogue bundle was compiled with a different token delimiter: " + delimiter);
+        }
+        TokenRegistry registry = TypingConfig.getTokenRegistry();
+
+        // Adjust and check markup color
+        if(label.forceMarkupColor) label.getBitmapFontCache().getFont().getData().markupEnabled = true;
+        boolean hasMarkup = label.getBitmapFontCache().getFont().getData().markupEnabled;
+
+        // Read line header
+        int position = getLinePosition(line);
+        byte flags = buffer.get(position);
+        boolean isDependent = (flags & FLAG_DEPENDENT) != 0;
+        boolean hasSource = (flags & (FLAG_DEPENDENT | FLAG_SOURCE)) != 0;
+        if(hasSource && hasFingerprint && effectFingerprint != registry.effectFingerprint) return false;
+        position++;
+        String text = readString(position);
+        position = skipString(position);
+        if(hasSource) position = skipString(position);
+        int tokenCount = buffer.getInt(position);
+        position += 4;
+
+        // Read entries, splicing label-dependent values into the text
+        StringBuilder sb = isDependent ? new StringBuilder(text) : null;
+        Array<TokenEntry> entries = label.tokenEntries;
+        Array<VariableSpan> spans = label.variableSpans;
+        entries.clear();
+        spans.clear();
+        int shift = 0;
+        for(int i = 0; i < tokenCount; i++) {
+            TokenCategory category = TokenCategory.values()[buffer.get(position)];
+            int index = buffer.getInt(position + 1);
+            float floatValue = buffer.getFloat(position + 5);
+            String tokenName = tokenNames[buffer.getShort(position + 9)];
+            position += 11;
+            String stringValue = readString(position);
+            position = skipString(position);
+            String params = readString(position);
+            position = skipString(position);
+
+            // Resolve tokens that depend on the label
+            if(category == TokenCategory.VARIABLE || category == TokenCategory.IF || category == TokenCategory.COLOR) {
+                String value = resolve(label, category, stringValue, hasMarkup);
+                if(value.indexOf(delimiter.open) >= 0) {
+                    entries.clear();
+                    spans.clear();
+                    return false;
+                }
+                if(category != TokenCategory.COLOR) {
+                    boolean spliceable = Parser.isPlainText(value, delimiter.open, hasMarkup) && !Parser.isInsideColorTag(sb, index + shift, hasMarkup);
+                    spans.add(new VariableSpan(category, stringValue, value, index + shift, entries.size, spliceable));
+                }
+                sb.insert(index + shift, value);
+                shift += value.length();
+                continue;
+            }
+
+            // Register entry, ignoring effects that aren't registered anymore like the parser ignores unknown tokens
+            TokenEntry entry = new TokenEntry(tokenName, category, index + shift, floatValue, stringValue);
+            entry.sequence = category == TokenCategory.SKIP ? -1 : entries.size;
+            if(category == TokenCategory.EFFECT_START || category == TokenCategory.EFFECT_END) {
+                boolean isStart = category == TokenCategory.EFFECT_START;
+                entry.effectId = registry.getEffectId(tokenName, isStart);
+                entry.closedEffectIds = registry.getClosedEffectIds(entry.effectId);
+                if(isStart) {
+                    entry.params = params;
+                    entry.effect = Parser.createEffect(label, registry, tokenName, params);
+                    if(entry.effect == null) continue;
+                } else if(entry.effectId < 0) {
+                    continue;
+                }
+            }
+            entries.add(entry);
+        }
+
+        // Set text, registering color markups of the replaced values as well
+        if(isDependent) {
+            text = sb.toString();
+            Parser.parseColorMarkups(text, entries);
+        }
+        label.setText(text, true, false);
+
+        // Sort token entries
+        entries.sort();
+        entries.reverse();
+        return true;
+    }
+
+    /** Returns the replacement of a token that depends on the label. Never returns null. */
+    private static String resolve(TypingLabel label, TokenCategory category, String param, boolean hasMarkup) {
+        String value;
+        switch(category) {
+            case VARIABLE:
+                value = Parser.getVariableValue(label, param);
+                break;
+            case IF:
+                value = Parser.processIfToken(label, param);
+                break;
+            default:
+                return hasMarkup ? Parser.getClearColorMarkup(label) : "";
+        }
+
+        // Make sure we're not inserting "null" to the text.
+        return value == null ? param.toUpperCase() : value;
+    }
+
+    private int getLinePosition(int line) {
+        if(line < 0 || line >= lineCount) {
+            throw new IndexOutOfBoundsException("line can't be < 0 or >= " + lineCount + ": " + line);
+        }
+        return buffer.getInt(offsetsPosition + line * 4);
+    }
+
+    /** Reads a string written by {@link DialogueBundleCompiler} at the given position. */
+    private String readString(int position) {
+        int length = buffer.getInt(position);
+        if(length == NULL_STRING) return null;
+        char[] chars = new char[length];
+        position += 4;
+        for(int i = 0; i < length; i++) {
+            chars[i] = buffer.getChar(position + i * 2);
+        }
+        return new String(chars);
+    }
+
+    /** Returns the position right after the string at the given position. */
+    private int skipString(int position) {
+        int length = buffer.getInt(position);
+        return position + 4 + Math.max(0, length) * 2;
+    }
+
+}
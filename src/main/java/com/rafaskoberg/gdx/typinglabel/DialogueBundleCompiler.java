@@ -0,0 +1,187 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+
+/**
+ * Compiles texts ahead of time into the binary format read by {@link DialogueBundle}, using the same rules as the
+ * regular parsing of a {@link TypingLabel}. Meant to be used at build time, either through this API or through
+ * {@link #main(String[])}. Not available on GWT.
+ * <p>
+ * Each line stores its stripped text and its token entries, including effect tokens and their params. Tokens that
+ * depend on the label at runtime, namely {@code VAR}, {@code IF}, {@code CLEARCOLOR} and {@code ENDCOLOR}, are stored
+ * as spans to be resolved when the line starts. Lines with such tokens, effect tokens or unknown tokens also store
+ * their source, so they can be parsed at runtime if the registered effects don't match the ones at compile time.
+ */
+public class DialogueBundleCompiler {
+    private final Array<String> lines        = new Array<>();
+    private       String        defaultToken = "";
+
+    /**
+     * Sets the default token to be compiled before each line, and after each {@code RESET} token, as done by
+     * {@link TypingLabel#setDefaultToken(String)}. Defaults to empty string.
+     */
+    public void setDefaultToken(String defaultToken) {
+        this.defaultToken = defaultToken == null ? "" : defaultToken;
+    }
+
+    /** Adds a line to be compiled and returns its index in the bundle. */
+    public int addLine(CharSequence text) {
+        lines.add(text.toString());
+        return lines.size - 1;
+    }
+
+    /** Returns how many lines were added so far. */
+    public int size() {
+        return lines.size;
+    }
+
+    /** Compiles all lines into a new byte array. */
+    public byte[] compile() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            write(out);
+        } catch(IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /** Compiles all lines and writes them to the given stream. The stream is not closed. */
+    public void write(OutputStream out) throws IOException {
+        Array<String> tokenNames = new Array<>();
+        ObjectIntMap<String> tokenNameIndices = new ObjectIntMap<>();
+        Array<TokenEntry> entries = new Array<>();
+
+        // Compile lines
+        ByteArrayOutputStream linesBytes = new ByteArrayOutputStream();
+        DataOutputStream linesData = new DataOutputStream(linesBytes);
+        int[] lineOffsets = new int[lines.size];
+        for(int i = 0; i < lines.size; i++) {
+            lineOffsets[i] = linesData.size();
+
+            // Parse line
+            String source = defaultToken + lines.get(i);
+            entries.clear();
+            String text = Parser.compileTokens(source, defaultToken, entries);
+            boolean isDependent = false;
+            boolean hasEffects = text.indexOf(TypingConfig.TOKEN_DELIMITER.open) >= 0; // Possibly unknown tokens
+            for(TokenEntry entry : entries) {
+                if(isLabelDependent(entry.category)) isDependent = true;
+                if(entry.category == TokenCategory.EFFECT_START || entry.category == TokenCategory.EFFECT_END) hasEffects = true;
+            }
+
+            // Color markups of dependent lines can only be known at runtime
+            if(!isDependent) {
+                Parser.parseColorMarkups(text, entries);
+            }
+
+            // Write line
+            int flags = 0;
+            if(isDependent) flags |= DialogueBundle.FLAG_DEPENDENT;
+            if(isDependent || hasEffects) flags |= DialogueBundle.FLAG_SOURCE;
+            linesData.writeByte(flags);
+            writeString(linesData, text);
+            if((flags & DialogueBundle.FLAG_SOURCE) != 0) writeString(linesData, source);
+            linesData.writeInt(entries.size);
+            for(TokenEntry entry : entries) {
+                int tokenNameIndex = tokenNameIndices.get(entry.token, -1);
+                if(tokenNameIndex < 0) {
+                    tokenNameIndex = tokenNames.size;
+                    tokenNames.add(entry.token);
+                    tokenNameIndices.put(entry.token, tokenNameIndex);
+                }
+                linesData.writeByte(entry.category.ordinal());
+                linesData.writeInt(entry.index);
+                linesData.writeFloat(entry.floatValue);
+                linesData.writeShort(tokenNameIndex);
+                writeString(linesData, entry.stringValue);
+                writeString(linesData, entry.params);
+            }
+        }
+        linesData.flush();
+
+        // Write header
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream headerData = new DataOutputStream(headerBytes);
+        headerData.writeInt(DialogueBundle.MAGIC);
+        headerData.writeInt(DialogueBundle.FORMAT_VERSION);
+        headerData.writeByte(TypingConfig.TOKEN_DELIMITER.ordinal());
+        headerData.writeInt(TypingConfig.getTokenRegistry().effectFingerprint);
+        writeString(headerData, defaultToken);
+        headerData.writeInt(tokenNames.size);
+        for(String tokenName : tokenNames) {
+            writeString(headerData, tokenName);
+        }
+        headerData.writeInt(lines.size);
+        int linesPosition = headerData.size() + lines.size * 4;
+        for(int lineOffset : lineOffsets) {
+            headerData.writeInt(linesPosition + lineOffset);
+        }
+        headerData.flush();
+
+        headerBytes.writeTo(out);
+        linesBytes.writeTo(out);
+    }
+
+    /** Returns whether or not entries of the given category are resolved by the label at runtime. */
+    private static boolean isLabelDependent(TokenCategory category) {
+        return category == TokenCategory.VARIABLE || category == TokenCategory.IF || category == TokenCategory.COLOR;
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        if(str == null) {
+            out.writeInt(DialogueBundle.NULL_STRING);
+            return;
+        }
+        out.writeInt(str.length());
+        out.writeChars(str);
+    }
+
+    /**
+     * Compiles text files into a bundle. Each line of each file becomes a line of the bundle, in order, and
+     * <tt>\n</tt> sequences are replaced by line breaks.
+     * <p>
+     * Usage: {@code DialogueBundleCompiler [-d defaultToken] output input...}
+     */
+    public static void main(String[] args) throws IOException {
+        DialogueBundleCompiler compiler = new DialogueBundleCompiler();
+        int arg = 0;
+        if(args.length > 1 && args[0].equals("-d")) {
+            compiler.setDefaultToken(args[1]);
+            arg = 2;
+        }
+        if(args.length - arg < 2) {
+            System.err.println("Usage: DialogueBundleCompiler [-d defaultToken] output input...");
+            System.exit(1);
+            return;
+        }
+
+        // Read lines
+        String output = args[arg++];
+        for(; arg < args.length; arg++) {
+            try(BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(args[arg]), "UTF-8"))) {
+                String line;
+                while((line = reader.readLine()) != null) {
+                    compiler.addLine(line.replace("\\n", "\n"));
+                }
+            }
+        }
+
+        // Write bundle
+        try(OutputStream out = new FileOutputStream(output)) {
+            compiler.write(out);
+        }
+        System.out.println("Compiled " + compiler.size() + " lines into " + output);
+    }
+
+}
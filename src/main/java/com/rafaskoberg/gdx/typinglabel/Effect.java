@@ -13,6 +13,9 @@ public abstract class Effect {
     public               int         indexEnd      = -1;
     public               float       duration      = Float.POSITIVE_INFINITY;
     protected            float       totalTime;
+                         int         startSequence = -1; // Source order of the token that started this effect
+                         int         endSequence   = -1; // Source order of the token that ended this effect
+                         int         effectId      = -1; // Registered effect this instance was started as
 
     public Effect(TypingLabel label) {
         this.label = label;
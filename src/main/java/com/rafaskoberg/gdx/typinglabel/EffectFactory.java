@@ -0,0 +1,17 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+/**
+ * Creates instances of a registered effect without relying on reflection. Useful on platforms with limited reflection,
+ * such as GWT, or when shrinking code with ProGuard or R8.
+ *
+ * @see TypingConfig#registerEffect(String, String, Class, EffectFactory)
+ */
+public interface EffectFactory {
+    /**
+     * Creates a new effect for the given label.
+     *
+     * @param label  Label the effect belongs to.
+     * @param params Parameters of the token that started the effect. Reused after this call, so don't keep it.
+     */
+    Effect create(TypingLabel label, EffectParams params);
+}
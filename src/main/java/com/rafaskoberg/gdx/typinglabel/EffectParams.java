@@ -0,0 +1,345 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Colors;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Read-only view over the parameters of a token, such as <tt>1;0.5;RED</tt> in <tt>{TOKEN=1;0.5;RED}</tt>. Parameters
+ * are separated by semicolons and addressed by their index. Values are only parsed when requested, and typed accessors
+ * don't allocate, except for named colors and unusual number formats.
+ * <p>
+ * Instances are reused by the parser, so effects should read the parameters they need when constructed, without
+ * keeping references to the view itself.
+ */
+public final class EffectParams {
+    // Powers of ten that are exact as floats, since 5^10 still fits in a float's 24 bit mantissa
+    private static final float[] POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+    private static final int     MAX_MANTISSA  = 1 << 24;
+
+    private       CharSequence source = "";
+    private final IntArray     bounds = new IntArray(); // Start and end of each param, in pairs
+
+    /** Creates a view without any params. */
+    public EffectParams() {
+    }
+
+    /** Creates a view over the given params string. See {@link #set(CharSequence)}. */
+    public EffectParams(CharSequence params) {
+        set(params);
+    }
+
+    /**
+     * Creates a view over the given params array, as previously passed to effect constructors. Params are joined with
+     * semicolons, so they must not contain any.
+     */
+    public EffectParams(String[] params) {
+        if(params == null || params.length == 0) {
+            set(null);
+            return;
+        }
+        StringBuilder builder = new StringBuilder();
+        for(int i = 0; i < params.length; i++) {
+            if(i > 0) builder.append(';');
+            builder.append(params[i]);
+        }
+        set(builder);
+    }
+
+    /**
+     * Points this view to the given params string, which can be null if there are no params. Params are split the same
+     * way as {@link String#split(String)} with a semicolon, so trailing empty params are ignored.
+     *
+     * @return This instance for chaining.
+     */
+    public EffectParams set(CharSequence params) {
+        return params == null ? set("", 0, -1) : set(params, 0, params.length());
+    }
+
+    /**
+     * Points this view to a region of the given params string, which is not copied and so must not change while this
+     * view is in use. If end is negative, this view won't have any params.
+     *
+     * @return This instance for chaining.
+     */
+    public EffectParams set(CharSequence source, int start, int end) {
+        this.source = source;
+        bounds.clear();
+        if(end < 0) return this;
+
+        // An empty string still has one empty param
+        if(start == end) {
+            bounds.add(start, end);
+            return this;
+        }
+
+        // Split params
+        int paramStart = start;
+        for(int i = start; i < end; i++) {
+            if(source.charAt(i) == ';') {
+                bounds.add(paramStart, i);
+                paramStart = i + 1;
+            }
+        }
+        bounds.add(paramStart, end);
+
+        // Ignore trailing empty params
+        while(bounds.size > 0 && bounds.get(bounds.size - 2) == bounds.get(bounds.size - 1)) {
+            bounds.size -= 2;
+        }
+        return this;
+    }
+
+    /** Returns how many params this view has. */
+    public int size() {
+        return bounds.size / 2;
+    }
+
+    /** Returns the amount of chars of the given param, or -1 if there's no param with that index. */
+    public int getLength(int index) {
+        if(index < 0 || index >= size()) return -1;
+        return end(index) - start(index);
+    }
+
+    /** Returns whether or not the given param exists and is equal to the given text, ignoring case. */
+    public boolean equalsIgnoreCase(int index, CharSequence text) {
+        if(getLength(index) != text.length()) return false;
+        return regionMatchesIgnoreCase(start(index), text);
+    }
+
+    /** Returns a new String with the given param, or the default value if there's no param with that index. */
+    public String getString(int index, String defaultValue) {
+        if(index < 0 || index >= size()) return defaultValue;
+        return source.subSequence(start(index), end(index)).toString();
+    }
+
+    /**
+     * Returns the given param as a float value, or the default value if there's no param with that index or it couldn't
+     * be parsed.
+     */
+    public float getFloat(int index, float defaultValue) {
+        if(index < 0 || index >= size()) return defaultValue;
+        int start = trimStart(start(index), end(index));
+        int end = trimEnd(start, end(index));
+
+        // Sign
+        int i = start;
+        boolean negative = false;
+        if(i < end && (source.charAt(i) == '-' || source.charAt(i) == '+')) {
+            negative = source.charAt(i) == '-';
+            i++;
+        }
+
+        // Digits, ignoring the decimal point but keeping track of its exponent
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+        boolean hasPoint = false;
+        for(; i < end; i++) {
+            char c = source.charAt(i);
+            if(c >= '0' && c <= '9') {
+                hasDigits = true;
+                if(mantissa == 0 && c == '0') {
+                    if(hasPoint) exponent--;
+                    continue;
+                }
+                if(++digits > 15) return parseFloatSlow(start, end, defaultValue);
+                mantissa = mantissa * 10 + (c - '0');
+                if(hasPoint) exponent--;
+            } else if(c == '.' && !hasPoint) {
+                hasPoint = true;
+            } else {
+                break;
+            }
+        }
+        if(!hasDigits) return parseFloatSlow(start, end, defaultValue);
+
+        // Exponent
+        if(i < end && (source.charAt(i) == 'e' || source.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if(i < end && (source.charAt(i) == '-' || source.charAt(i) == '+')) {
+                negativeExponent = source.charAt(i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int explicitExponent = 0;
+            for(; i < end && source.charAt(i) >= '0' && source.charAt(i) <= '9'; i++) {
+                if(explicitExponent > 1000) return parseFloatSlow(start, end, defaultValue);
+                explicitExponent = explicitExponent * 10 + (source.charAt(i) - '0');
+            }
+            if(i == exponentStart) return defaultValue;
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        // Type suffix
+        if(i < end) {
+            char c = source.charAt(i);
+            if(c == 'f' || c == 'F' || c == 'd' || c == 'D') i++;
+        }
+        if(i != end) return parseFloatSlow(start, end, defaultValue);
+
+        // Mantissa and power of ten are both exact as floats, so a single float operation rounds the value correctly.
+        // Other values are left to the JDK, since rounding to a double first and then to a float could round twice.
+        if(mantissa > MAX_MANTISSA || exponent < -10 || exponent > 10) return parseFloatSlow(start, end, defaultValue);
+        float value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Returns the given param as an int value, or the default value if there's no param with that index or it couldn't
+     * be parsed.
+     */
+    public int getInt(int index, int defaultValue) {
+        if(index < 0 || index >= size()) return defaultValue;
+        int start = trimStart(start(index), end(index));
+        int end = trimEnd(start, end(index));
+        int i = start;
+        boolean negative = false;
+        if(i < end && (source.charAt(i) == '-' || source.charAt(i) == '+')) {
+            negative = source.charAt(i) == '-';
+            i++;
+        }
+        if(i == end) return defaultValue;
+        long value = 0;
+        for(; i < end; i++) {
+            char c = source.charAt(i);
+            if(c < '0' || c > '9') return defaultValue;
+            value = value * 10 + (c - '0');
+            if(value > Integer.MAX_VALUE + 1L) return defaultValue;
+        }
+        if(negative) value = -value;
+        if(value > Integer.MAX_VALUE) return defaultValue;
+        return (int) value;
+    }
+
+    /**
+     * Returns the given param as a boolean value, or the default value if there's no param with that index. Values such
+     * as <tt>true</tt>, <tt>yes</tt>, <tt>on</tt> and <tt>1</tt> are considered true, and all others false.
+     */
+    public boolean getBoolean(int index, boolean defaultValue) {
+        if(index < 0 || index >= size()) return defaultValue;
+        for(String booleanTrue : Parser.BOOLEAN_TRUE) {
+            if(equalsIgnoreCase(index, booleanTrue)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses the given param as a color name registered in {@link Colors}, or as a hex code in the <tt>RRGGBB</tt> or
+     * <tt>RRGGBBAA</tt> formats, optionally prefixed with <tt>#</tt>. Returns whether or not the color could be parsed,
+     * in which case it's stored in the given target. Otherwise the target is left untouched. Looking up color names
+     * allocates an upper case copy of the param.
+     */
+    public boolean getColor(int index, Color target) {
+        if(index < 0 || index >= size()) return false;
+        int start = start(index);
+        int end = end(index);
+        int length = end - start;
+
+        // Try to parse named color
+        Color namedColor = Colors.get(substring(start, end).toUpperCase());
+        if(namedColor != null) {
+            target.set(namedColor);
+            return true;
+        }
+
+        // Try to parse hex
+        if(length < 6) return false;
+        if(source.charAt(start) == '#') start++;
+        int hexLength = end - start;
+        if(hexLength < 6) return false;
+        int r = parseHexByte(start);
+        int g = parseHexByte(start + 2);
+        int b = parseHexByte(start + 4);
+        int a = hexLength == 8 ? parseHexByte(start + 6) : 255;
+        if(r < 0 || g < 0 || b < 0 || a < 0) return false;
+        target.set(r / 255f, g / 255f, b / 255f, a / 255f);
+        return true;
+    }
+
+    /**
+     * Returns the enum constant among the given values whose name matches the given param, ignoring case. Returns the
+     * default value if there's no param with that index or no constant matches it.
+     */
+    public <E extends Enum<E>> E getEnum(int index, E[] values, E defaultValue) {
+        if(index < 0 || index >= size()) return defaultValue;
+        for(E value : values) {
+            if(equalsIgnoreCase(index, value.name())) return value;
+        }
+        return defaultValue;
+    }
+
+    /** Returns a new array with all params as Strings. */
+    public String[] toArray() {
+        String[] params = new String[size()];
+        for(int i = 0; i < params.length; i++) {
+            params[i] = getString(i, null);
+        }
+        return params;
+    }
+
+    /** Returns the index of the first char of the given param in the source string. */
+    int start(int index) {
+        return bounds.get(index * 2);
+    }
+
+    /** Returns the index after the last char of the given param in the source string. */
+    int end(int index) {
+        return bounds.get(index * 2 + 1);
+    }
+
+    /** Returns the index of the first occurrence of the given char within the given param, or -1 if there's none. */
+    int indexOf(int index, char c) {
+        for(int i = start(index), n = end(index); i < n; i++) {
+            if(source.charAt(i) == c) return i;
+        }
+        return -1;
+    }
+
+    /** Returns a new String with the chars between the given indices of the source string. */
+    String substring(int start, int end) {
+        return source.subSequence(start, end).toString();
+    }
+
+    /** Returns whether or not the source string has the given text at the given index, ignoring case. */
+    boolean regionMatchesIgnoreCase(int start, CharSequence text) {
+        for(int i = 0, n = text.length(); i < n; i++) {
+            char a = source.charAt(start + i);
+            char b = text.charAt(i);
+            if(a != b && Character.toUpperCase(a) != Character.toUpperCase(b)) return false;
+        }
+        return true;
+    }
+
+    private int trimStart(int start, int end) {
+        while(start < end && source.charAt(start) <= ' ') start++;
+        return start;
+    }
+
+    private int trimEnd(int start, int end) {
+        while(end > start && source.charAt(end - 1) <= ' ') end--;
+        return end;
+    }
+
+    /** Returns the value of the two hex digits at the given index, or -1 if they're not valid hex digits. */
+    private int parseHexByte(int index) {
+        int high = Character.digit(source.charAt(index), 16);
+        int low = Character.digit(source.charAt(index + 1), 16);
+        if(high < 0 || low < 0) return -1;
+        return high * 16 + low;
+    }
+
+    /** Parses unusual formats, such as very long numbers, hex floats or NaN, through the JDK. Allocates. */
+    private float parseFloatSlow(int start, int end, float defaultValue) {
+        return Parser.stringToFloat(substring(start, end), defaultValue);
+    }
+
+    @Override
+    public String toString() {
+        if(bounds.size == 0) return "";
+        return substring(start(0), end(size() - 1));
+    }
+
+}
@@ -68,7 +68,24 @@ class GlyphUtils {
 
         glyph.runColor = 0xFFFFFFFF;
         glyph.internalIndex = -1;
-        glyph.color = null;
+        glyph.vertexIndex = -1;
+        glyph.clearColor();
+    }
+
+    /**
+     * Copies the fields a layout changes from the first glyph to the second one, which must be a clone of a glyph with
+     * the same id from the same font, and clears the rest of its state as if it was cloned again.
+     */
+    static void relayout(Glyph from, TypingGlyph to) {
+        to.width = from.width;
+        to.height = from.height;
+        to.xoffset = from.xoffset;
+        to.yoffset = from.yoffset;
+
+        to.runColor = 0xFFFFFFFF;
+        to.internalIndex = -1;
+        to.vertexIndex = -1;
+        to.clearColor();
     }
 
     /** Copies all contents from the first glyph to the second one. */
@@ -90,7 +107,8 @@ class GlyphUtils {
 
         to.runColor = 0xFFFFFFFF;
         to.internalIndex = -1;
-        to.color = null;
+        to.vertexIndex = -1;
+        to.clearColor();
     }
 
 }
@@ -33,15 +33,4 @@ enum InternalToken {
     public String toString() {
         return name;
     }
-
-    static InternalToken fromName(String name) {
-        if(name != null) {
-            for(InternalToken token : values()) {
-                if(name.equalsIgnoreCase(token.name)) {
-                    return token;
-                }
-            }
-        }
-        return null;
-    }
 }
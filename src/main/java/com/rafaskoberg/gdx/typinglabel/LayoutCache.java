@@ -0,0 +1,321 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Colors;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout.GlyphRun;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pools;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of shaped layouts, shared by all labels. Laying out a label with the same stripped text,
+ * font, font scale, width, alignment, wrapping and ellipsis as another one copies the glyph positions that were already
+ * calculated, instead of running {@link GlyphLayout#setText} again. Each label still keeps its own runs and glyphs,
+ * along with the state effects leave in them, so a hit copies them rather than sharing them. Color markup tags are
+ * resolved through {@link Colors} when the text is looked up, so changing a named color doesn't serve stale colors.
+ * <p>
+ * The cache is bounded by both an entry and a byte budget. Byte sizes are estimations, not exact measurements. Cached
+ * layouts keep references to the glyphs of their fonts, so the cache must be cleared after disposing or regenerating
+ * fonts. It must only be used from the render thread.
+ *
+ * @see TypingConfig#LAYOUT_CACHE
+ */
+public class LayoutCache {
+    private static final int ENTRY_OVERHEAD = 96;
+    private static final int RUN_OVERHEAD   = 64;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Key                       probe   = new Key();
+
+    private int  maxEntries;
+    private long maxBytes;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxEntries Maximum amount of layouts kept in this cache. Use {@code 0} to disable it.
+     * @param maxBytes   Estimated maximum amount of memory used by this cache, in bytes.
+     */
+    public LayoutCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /** Returns the maximum amount of layouts kept in this cache. */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /** Sets the maximum amount of layouts kept in this cache, evicting the least recently used ones if necessary. */
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+        trim();
+    }
+
+    /** Returns the estimated maximum amount of memory used by this cache, in bytes. */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /** Sets the estimated maximum amount of memory used by this cache, evicting the least recently used layouts if necessary. */
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        trim();
+    }
+
+    /** Returns how many layouts are currently cached. */
+    public int size() {
+        return entries.size();
+    }
+
+    /** Returns the estimated amount of memory currently used by this cache, in bytes. */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /** Returns how many layouts were copied from this cache instead of being calculated. */
+    public long getHits() {
+        return hits;
+    }
+
+    /** Returns how many layouts had to be calculated because they weren't cached. */
+    public long getMisses() {
+        return misses;
+    }
+
+    /** Returns the ratio of layouts that were copied from this cache, between 0 and 1. */
+    public float getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (float) hits / total;
+    }
+
+    /** Returns how many layouts were removed from this cache to respect its budget. */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /** Resets the hit, miss and eviction counters. */
+    public void resetCounters() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /** Removes all layouts from this cache. */
+    public void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Copies a cached layout of the given text and settings to the given layout, if there's one. The font must already
+     * be scaled.
+     *
+     * @return The cached layout, which also holds the size of the text before it was aligned, or null if there was none.
+     */
+    Entry restore(GlyphLayout layout, BitmapFont font, CharSequence text, float width, int align, boolean wrap, String ellipsis) {
+        if(maxEntries <= 0) return null;
+        probe.set(text, font, width, align, wrap, ellipsis);
+        Entry entry = entries.get(probe);
+        probe.text = null;
+        if(entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+
+        // Copy runs, so labels can replace their glyphs
+        layout.reset();
+        for(int i = 0; i < entry.runGlyphs.length; i++) {
+            GlyphRun run = Pools.obtain(GlyphRun.class);
+            run.glyphs.addAll(entry.runGlyphs[i]);
+            run.xAdvances.addAll(entry.runXAdvances[i]);
+            run.x = entry.runX[i];
+            run.y = entry.runY[i];
+            run.width = entry.runWidths[i];
+            layout.runs.add(run);
+        }
+        layout.colors.addAll(entry.colors);
+        layout.glyphCount = entry.glyphCount;
+        layout.width = entry.width;
+        layout.height = entry.height;
+        return entry;
+    }
+
+    /**
+     * Stores an immutable copy of the given layout, shaped from the given text and settings, along with the size of the
+     * text before it was aligned.
+     */
+    void store(GlyphLayout layout, BitmapFont font, CharSequence text, float width, int align, boolean wrap, String ellipsis, float textWidth, float textHeight) {
+        if(maxEntries <= 0) return;
+
+        Array<GlyphRun> runs = layout.runs;
+        int runCount = runs.size;
+        Glyph[][] runGlyphs = new Glyph[runCount][];
+        float[][] runXAdvances = new float[runCount][];
+        float[] runX = new float[runCount];
+        float[] runY = new float[runCount];
+        float[] runWidths = new float[runCount];
+        long entryBytes = ENTRY_OVERHEAD + text.length() * 2L + layout.colors.size * 4L;
+        for(int i = 0; i < runCount; i++) {
+            GlyphRun run = runs.get(i);
+            runGlyphs[i] = run.glyphs.toArray(Glyph.class);
+            runXAdvances[i] = run.xAdvances.toArray();
+            runX[i] = run.x;
+            runY[i] = run.y;
+            runWidths[i] = run.width;
+            entryBytes += RUN_OVERHEAD + (runGlyphs[i].length + runXAdvances[i].length) * 4L;
+        }
+        int[] colors = layout.colors.toArray();
+        if(entryBytes > maxBytes) return;
+
+        Key key = new Key();
+        key.set(text.toString(), font, width, align, wrap, ellipsis);
+        Entry entry = new Entry(runGlyphs, runXAdvances, runX, runY, runWidths, colors, layout.glyphCount, layout.width, layout.height, textWidth, textHeight, entryBytes);
+        Entry previous = entries.put(key, entry);
+        if(previous != null) bytes -= previous.bytes;
+        bytes += entry.bytes;
+        trim();
+    }
+
+    /** Evicts the least recently used layouts until this cache respects its budget. */
+    private void trim() {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while(iterator.hasNext() && (entries.size() > Math.max(0, maxEntries) || bytes > maxBytes)) {
+            bytes -= iterator.next().getValue().bytes;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /** Identifies a stripped text and all the settings its layout depends on. */
+    private static class Key {
+        CharSequence text;
+        BitmapFont   font;
+        float        scaleX;
+        float        scaleY;
+        boolean      markupEnabled;
+        float        width;
+        int          align;
+        boolean      wrap;
+        String       ellipsis;
+        int          colorsHash;
+        int          hash;
+
+        void set(CharSequence text, BitmapFont font, float width, int align, boolean wrap, String ellipsis) {
+            this.text = text;
+            this.font = font;
+            this.scaleX = font.getScaleX();
+            this.scaleY = font.getScaleY();
+            this.markupEnabled = font.getData().markupEnabled;
+            this.width = width;
+            this.align = align;
+            this.wrap = wrap;
+            this.ellipsis = ellipsis;
+            this.colorsHash = markupEnabled ? hashColorTags(text) : 0;
+
+            int h = 1;
+            for(int i = 0, n = text.length(); i < n; i++) {
+                h = 31 * h + text.charAt(i);
+            }
+            h = 31 * h + System.identityHashCode(font);
+            h = 31 * h + Float.floatToIntBits(scaleX);
+            h = 31 * h + Float.floatToIntBits(scaleY);
+            h = 31 * h + (markupEnabled ? 1 : 0);
+            h = 31 * h + Float.floatToIntBits(width);
+            h = 31 * h + align;
+            h = 31 * h + (wrap ? 1 : 0);
+            h = 31 * h + (ellipsis == null ? 0 : ellipsis.hashCode());
+            h = 31 * h + colorsHash;
+            this.hash = h;
+        }
+
+        /** Hashes the current values of the named colors referenced by color markup tags in the given text. */
+        private static int hashColorTags(CharSequence text) {
+            int h = 0;
+            for(int i = 0, n = text.length(); i < n; i++) {
+                if(text.charAt(i) != '[') continue;
+                int start = i + 1;
+                if(start >= n) break;
+
+                // Skip escaped brackets, hex colors and tags that pop colors
+                char first = text.charAt(start);
+                if(first == '[') {
+                    i++;
+                    continue;
+                }
+                if(first == '#' || first == ']') continue;
+
+                // Hash named color, or its absence
+                int end = start;
+                while(end < n && text.charAt(end) != ']' && text.charAt(end) != '[') end++;
+                if(end >= n || text.charAt(end) != ']') continue;
+                Color color = Colors.get(text.subSequence(start, end).toString());
+                h = 31 * h + (color == null ? -1 : color.toIntBits());
+                i = end;
+            }
+            return h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(this == obj) return true;
+            if(!(obj instanceof Key)) return false;
+            Key other = (Key) obj;
+            if(hash != other.hash || font != other.font || scaleX != other.scaleX || scaleY != other.scaleY) return false;
+            if(markupEnabled != other.markupEnabled || width != other.width || align != other.align || wrap != other.wrap) return false;
+            if(colorsHash != other.colorsHash) return false;
+            if(ellipsis == null ? other.ellipsis != null : !ellipsis.equals(other.ellipsis)) return false;
+            if(text.length() != other.text.length()) return false;
+            for(int i = 0, n = text.length(); i < n; i++) {
+                if(text.charAt(i) != other.text.charAt(i)) return false;
+            }
+            return true;
+        }
+    }
+
+    /** Immutable shaped layout. */
+    static class Entry {
+        final Glyph[][] runGlyphs;
+        final float[][] runXAdvances;
+        final float[]   runX;
+        final float[]   runY;
+        final float[]   runWidths;
+        final int[]     colors;
+        final int       glyphCount;
+        final float     width;
+        final float     height;
+        final float     textWidth; // Size of the text before it was aligned
+        final float     textHeight;
+        final long      bytes;
+
+        Entry(Glyph[][] runGlyphs, float[][] runXAdvances, float[] runX, float[] runY, float[] runWidths, int[] colors, int glyphCount, float width, float height, float textWidth, float textHeight, long bytes) {
+            this.runGlyphs = runGlyphs;
+            this.runXAdvances = runXAdvances;
+            this.runX = runX;
+            this.runY = runY;
+            this.runWidths = runWidths;
+            this.colors = colors;
+            this.glyphCount = glyphCount;
+            this.width = width;
+            this.height = height;
+            this.textWidth = textWidth;
+            this.textHeight = textHeight;
+            this.bytes = bytes;
+        }
+    }
+
+}
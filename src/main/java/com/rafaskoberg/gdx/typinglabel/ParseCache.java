@@ -0,0 +1,292 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.graphics.Colors;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of parsed texts. Restarting a label with a text that was already parsed only copies the
+ * stripped text and its token entries, instead of parsing all tokens again. Texts are identified by their original
+ * content, the label's default token, the token delimiter, the version of the registered effects and the default speed
+ * and wait values in {@link TypingConfig}. Cached parses are only reused if all variables the text referenced still
+ * have the same values, and all color names its color tokens referenced are still registered, or not, in
+ * {@link Colors}.
+ * <p>
+ * The cache is bounded by both an entry and a byte budget. Byte sizes are estimations, not exact measurements.
+ *
+ * @see TypingConfig#PARSE_CACHE
+ */
+public class ParseCache {
+    private static final int ENTRY_OVERHEAD = 64;
+    private static final int TOKEN_OVERHEAD = 48;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Key                       probe   = new Key();
+
+    private int  maxEntries;
+    private long maxBytes;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxEntries Maximum amount of texts kept in this cache. Use {@code 0} to disable it.
+     * @param maxBytes   Estimated maximum amount of memory used by this cache, in bytes.
+     */
+    public ParseCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /** Returns the maximum amount of texts kept in this cache. */
+    public synchronized int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /** Sets the maximum amount of texts kept in this cache, evicting the least recently used ones if necessary. */
+    public synchronized void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+        trim();
+    }
+
+    /** Returns the estimated maximum amount of memory used by this cache, in bytes. */
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /** Sets the estimated maximum amount of memory used by this cache, evicting the least recently used texts if necessary. */
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        trim();
+    }
+
+    /** Returns how many texts are currently cached. */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Returns the estimated amount of memory currently used by this cache, in bytes. */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /** Returns how many parses were skipped because their text was already cached. */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /** Returns how many parses couldn't be skipped, either because their text wasn't cached or its variables changed. */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /** Returns how many texts were removed from this cache to respect its budget. */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /** Resets the hit, miss and eviction counters. */
+    public synchronized void resetCounters() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /** Removes all texts from this cache. */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Copies a previous parse of the label's current text to the label, if there's one. Returns whether or not the
+     * label could be restored, in which case no parsing is necessary.
+     */
+    boolean restore(TypingLabel label, TokenRegistry registry, String defaultToken) {
+        Entry entry = get(label, registry, defaultToken);
+        if(entry == null) return false;
+
+        // Make sure all referenced variables still have the same values
+        for(int i = 0; i < entry.variableNames.length; i++) {
+            String value = Parser.getVariableValue(label, entry.variableNames[i]);
+            String cachedValue = entry.variableValues[i];
+            if(value == null ? cachedValue != null : !value.equals(cachedValue)) {
+                recordMiss();
+                return false;
+            }
+        }
+
+        // Make sure all referenced color names are still registered, or not, since hex codes are told apart from them
+        for(int i = 0; i < entry.colorNames.length; i++) {
+            if((Colors.get(entry.colorNames[i]) != null) != entry.colorsRegistered[i]) {
+                recordMiss();
+                return false;
+            }
+        }
+        recordHit();
+
+        // Copy text and entries, creating fresh effect instances
+        label.setText(entry.text, false, false);
+        ParsedText.copy(label, registry, entry.tokenEntries, entry.variableSpans);
+        return true;
+    }
+
+    /** Stores the label's parsed text and token entries, as parsed from the given source text. */
+    void store(TypingLabel label, TokenRegistry registry, String defaultToken, String sourceText, Array<String> variableNames, Array<String> variableValues, Array<String> colorNames, BooleanArray colorsRegistered) {
+        // Create an immutable copy of the parse results
+        Array<TokenEntry> tokenEntries = label.tokenEntries;
+        TokenEntry[] prototypes = new TokenEntry[tokenEntries.size];
+        long entryBytes = ENTRY_OVERHEAD + (sourceText.length() + label.getText().length) * 2L;
+        for(int i = 0; i < prototypes.length; i++) {
+            TokenEntry prototype = new TokenEntry(tokenEntries.get(i));
+            prototypes[i] = prototype;
+            entryBytes += TOKEN_OVERHEAD;
+            if(prototype.stringValue != null) entryBytes += prototype.stringValue.length() * 2L;
+        }
+        VariableSpan[] spans = new VariableSpan[label.variableSpans.size];
+        for(int i = 0; i < spans.length; i++) {
+            spans[i] = new VariableSpan(label.variableSpans.get(i));
+            entryBytes += TOKEN_OVERHEAD;
+        }
+        String[] names = new String[variableNames.size];
+        String[] values = new String[variableValues.size];
+        for(int i = 0; i < names.length; i++) {
+            names[i] = variableNames.get(i);
+            values[i] = variableValues.get(i);
+            entryBytes += ENTRY_OVERHEAD / 2;
+        }
+        String[] colors = colorNames.toArray(String.class);
+        entryBytes += colors.length * (ENTRY_OVERHEAD / 2);
+        Key key = new Key();
+        key.set(sourceText, label, registry, defaultToken);
+        put(key, new Entry(label.getText().toString(), prototypes, spans, names, values, colors, colorsRegistered.toArray(), entryBytes));
+    }
+
+    private synchronized Entry get(TypingLabel label, TokenRegistry registry, String defaultToken) {
+        if(maxEntries <= 0) return null;
+        probe.set(label.getText(), label, registry, defaultToken);
+        Entry entry = entries.get(probe);
+        probe.text = null;
+        if(entry == null) misses++;
+        return entry;
+    }
+
+    private synchronized void put(Key key, Entry entry) {
+        if(maxEntries <= 0 || entry.bytes > maxBytes) return;
+        Entry previous = entries.put(key, entry);
+        if(previous != null) bytes -= previous.bytes;
+        bytes += entry.bytes;
+        trim();
+    }
+
+    private synchronized void recordHit() {
+        hits++;
+    }
+
+    private synchronized void recordMiss() {
+        misses++;
+    }
+
+    /** Evicts the least recently used texts until this cache respects its budget. */
+    private void trim() {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while(iterator.hasNext() && (entries.size() > Math.max(0, maxEntries) || bytes > maxBytes)) {
+            bytes -= iterator.next().getValue().bytes;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /** Identifies a source text and all the label and global state its parse depends on, except for variables and colors. */
+    private static class Key {
+        CharSequence   text;
+        String         defaultToken;
+        TokenDelimiter delimiter;
+        int            registryVersion;
+        boolean        markupEnabled;
+        int            clearColor;
+        float          speedPerChar;
+        float          minSpeedModifier;
+        float          maxSpeedModifier;
+        float          waitValue;
+        int            hash;
+
+        void set(CharSequence text, TypingLabel label, TokenRegistry registry, String defaultToken) {
+            this.text = text;
+            this.defaultToken = defaultToken;
+            this.delimiter = registry.delimiter;
+            this.registryVersion = registry.version;
+            this.markupEnabled = label.getBitmapFontCache().getFont().getData().markupEnabled;
+            this.clearColor = label.getClearColor().toIntBits();
+            this.speedPerChar = TypingConfig.DEFAULT_SPEED_PER_CHAR;
+            this.minSpeedModifier = TypingConfig.MIN_SPEED_MODIFIER;
+            this.maxSpeedModifier = TypingConfig.MAX_SPEED_MODIFIER;
+            this.waitValue = TypingConfig.DEFAULT_WAIT_VALUE;
+
+            int h = 1;
+            for(int i = 0, n = text.length(); i < n; i++) {
+                h = 31 * h + text.charAt(i);
+            }
+            h = 31 * h + defaultToken.hashCode();
+            h = 31 * h + delimiter.ordinal();
+            h = 31 * h + registryVersion;
+            h = 31 * h + (markupEnabled ? 1 : 0);
+            h = 31 * h + clearColor;
+            h = 31 * h + Float.floatToIntBits(speedPerChar);
+            h = 31 * h + Float.floatToIntBits(minSpeedModifier);
+            h = 31 * h + Float.floatToIntBits(maxSpeedModifier);
+            h = 31 * h + Float.floatToIntBits(waitValue);
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(this == obj) return true;
+            if(!(obj instanceof Key)) return false;
+            Key other = (Key) obj;
+            if(hash != other.hash || registryVersion != other.registryVersion || markupEnabled != other.markupEnabled) return false;
+            if(clearColor != other.clearColor || delimiter != other.delimiter || !defaultToken.equals(other.defaultToken)) return false;
+            if(speedPerChar != other.speedPerChar || minSpeedModifier != other.minSpeedModifier || maxSpeedModifier != other.maxSpeedModifier) return false;
+            if(waitValue != other.waitValue) return false;
+            if(text.length() != other.text.length()) return false;
+            for(int i = 0, n = text.length(); i < n; i++) {
+                if(text.charAt(i) != other.text.charAt(i)) return false;
+            }
+            return true;
+        }
+    }
+
+    /** Immutable results of a parse. */
+    private static class Entry {
+        final String         text;
+        final TokenEntry[]   tokenEntries;
+        final VariableSpan[] variableSpans;
+        final String[]       variableNames;
+        final String[]       variableValues;
+        final String[]       colorNames;
+        final boolean[]      colorsRegistered;
+        final long           bytes;
+
+        Entry(String text, TokenEntry[] tokenEntries, VariableSpan[] variableSpans, String[] variableNames, String[] variableValues, String[] colorNames, boolean[] colorsRegistered, long bytes) {
+            this.text = text;
+            this.tokenEntries = tokenEntries;
+            this.variableSpans = variableSpans;
+            this.variableNames = variableNames;
+            this.variableValues = variableValues;
+            this.colorNames = colorNames;
+            this.colorsRegistered = colorsRegistered;
+            this.bytes = bytes;
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectMap.Entry;
+
+/**
+ * Immutable snapshot of everything the parsing of a label's text depends on: its default token, whether or not color
+ * markup is enabled, its clear color, its variables along with the global ones, and the registered effects. Create it
+ * from the render thread, then use it with {@link ParsedText#parse(CharSequence, ParseContext)} from any thread.
+ * <p>
+ * Note that {@link TypingListener#replaceVariable(String)} is not called while parsing with a context, since listeners
+ * aren't meant to run outside of the render thread. Register those values as variables of the label instead.
+ */
+public final class ParseContext {
+    final TokenRegistry             registry;
+    final String                    defaultToken;
+    final boolean                   markupEnabled;
+    final int                       clearColor;
+    final String                    clearColorMarkup;
+    final ObjectMap<String, String> variables;
+
+    /** Captures the current state of the given label. Must be called from the render thread. */
+    public ParseContext(TypingLabel label) {
+        this.registry = TypingConfig.getTokenRegistry();
+        this.defaultToken = label.getDefaultToken();
+        this.markupEnabled = label.forceMarkupColor || label.getBitmapFontCache().getFont().getData().markupEnabled;
+        this.clearColor = label.getClearColor().toIntBits();
+        this.clearColorMarkup = Parser.getClearColorMarkup(label);
+
+        // Label variables take precedence over global ones
+        this.variables = new ObjectMap<>(TypingConfig.GLOBAL_VARS.size + label.getVariables().size);
+        for(Entry<String, String> entry : TypingConfig.GLOBAL_VARS.entries()) {
+            variables.put(entry.key, entry.value);
+        }
+        for(Entry<String, String> entry : label.getVariables().entries()) {
+            variables.put(entry.key, entry.value);
+        }
+    }
+
+    /** Returns the default token captured by this context. */
+    public String getDefaultToken() {
+        return defaultToken;
+    }
+
+    /** Returns the value of the given variable when this context was created, or null if it wasn't set. */
+    public String getVariable(String variable) {
+        return variables.get(variable.toUpperCase());
+    }
+
+    /** Returns whether or not a text parsed with this context can be applied to the given label as is. */
+    boolean matches(TypingLabel label, TokenRegistry registry) {
+        if(registry.version != this.registry.version || registry.delimiter != this.registry.delimiter) return false;
+        if(label.getBitmapFontCache().getFont().getData().markupEnabled != markupEnabled) return false;
+        return label.getClearColor().toIntBits() == clearColor && label.getDefaultToken().equals(defaultToken);
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+/**
+ * Immutable result of parsing a text with a {@link ParseContext}, which doesn't depend on any label and so can be done
+ * outside of the render thread. Start it with {@link TypingLabel#restart(ParsedText)}, or hand it over with
+ * {@link TypingLabel#queueText(ParsedText)}, which only parses it again if the registered effects, the label's default
+ * token, clear color or color markup setting changed since the context was created.
+ * <p>
+ * Effects are only instantiated when the text is started, since they belong to a label.
+ *
+ * @see TextPrefetcher
+ */
+public final class ParsedText {
+    private final String         sourceText;
+    private final String         text;
+    private final TokenEntry[]   tokenEntries;
+    private final VariableSpan[] variableSpans;
+    private final ParseContext   context;
+
+    ParsedText(String sourceText, String text, TokenEntry[] tokenEntries, VariableSpan[] variableSpans, ParseContext context) {
+        this.sourceText = sourceText;
+        this.text = text;
+        this.tokenEntries = tokenEntries;
+        this.variableSpans = variableSpans;
+        this.context = context;
+    }
+
+    /**
+     * Parses the given text with the state captured by the given context. Safe to call from any thread, and doesn't
+     * use {@link TypingConfig#PARSE_CACHE}.
+     */
+    public static ParsedText parse(CharSequence text, ParseContext context) {
+        return new Parser().parse(text, context);
+    }
+
+    /** Returns the original text, with all tokens unchanged and without the default token. */
+    public String getSourceText() {
+        return sourceText;
+    }
+
+    /** Returns the text stripped from tokens, with variables already replaced. */
+    public String getText() {
+        return text;
+    }
+
+    /** Returns the context this text was parsed with. */
+    public ParseContext getContext() {
+        return context;
+    }
+
+    /**
+     * Sets the text, token entries and variable spans to the given label, creating fresh effect instances. Returns
+     * false if the label's state doesn't match the context this text was parsed with anymore, in which case the label
+     * is left untouched.
+     */
+    boolean apply(TypingLabel label) {
+        TokenRegistry registry = TypingConfig.getTokenRegistry();
+        if(label.forceMarkupColor) label.getBitmapFontCache().getFont().getData().markupEnabled = true;
+        if(!context.matches(label, registry)) return false;
+
+        label.tokenEntries.clear();
+        label.variableSpans.clear();
+        label.setText(text, false, false);
+        copy(label, registry, tokenEntries, variableSpans);
+        return true;
+    }
+
+    /** Copies the given entries and spans to the label, creating fresh effect instances. */
+    static void copy(TypingLabel label, TokenRegistry registry, TokenEntry[] tokenEntries, VariableSpan[] variableSpans) {
+        for(TokenEntry prototype : tokenEntries) {
+            TokenEntry tokenEntry = new TokenEntry(prototype);
+            if(prototype.category == TokenCategory.EFFECT_START) {
+                tokenEntry.effect = Parser.createEffect(label, registry, prototype.token, prototype.params);
+            }
+            label.tokenEntries.add(tokenEntry);
+        }
+        for(VariableSpan prototype : variableSpans) {
+            label.variableSpans.add(new VariableSpan(prototype));
+        }
+    }
+
+}
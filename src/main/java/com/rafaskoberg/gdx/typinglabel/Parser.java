@@ -5,182 +5,446 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Colors;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.reflect.ClassReflection;
-import com.badlogic.gdx.utils.reflect.Constructor;
-import com.badlogic.gdx.utils.reflect.ReflectionException;
-import regexodus.Matcher;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.rafaskoberg.gdx.typinglabel.TokenRegistry.Descriptor;
 import regexodus.Pattern;
-import regexodus.REFlags;
 
-/** Utility class to parse tokens from a {@link TypingLabel}. */
-class Parser {
-    private static TokenDelimiter CURRENT_DELIMITER    = TypingConfig.TOKEN_DELIMITER;
-    private static Pattern        PATTERN_TOKEN_STRIP  = compileTokenPattern();
-    private static Pattern        PATTERN_MARKUP_STRIP = Pattern.compile("(\\[{2})|(\\[#?\\w*(\\[|\\])?)");
+import java.util.Arrays;
 
+/**
+ * Parses tokens from a {@link TypingLabel}. Each instance has its own buffers, so different threads can parse at the
+ * same time as long as they use different instances. The static methods use an instance shared by the render thread.
+ */
+class Parser {
     private static final Pattern PATTERN_COLOR_HEX_NO_HASH = Pattern.compile("[A-F0-9]{6}");
 
-    private static final String[] BOOLEAN_TRUE = {"true", "yes", "t", "y", "on", "1"};
-    private static final int      INDEX_TOKEN  = 1;
-    private static final int      INDEX_PARAM  = 2;
+    static final String[] BOOLEAN_TRUE = {"true", "yes", "t", "y", "on", "1"};
+
+    /** Instance used by the render thread. */
+    private static final Parser SHARED = new Parser();
 
-    private static String RESET_REPLACEMENT;
+    // Reusable lexer buffers
+    private final StringBuilder       textBuffer       = new StringBuilder();
+    private final Array<CharSequence> sourceStack      = new Array<>();
+    private final IntArray            positionStack    = new IntArray();
+    private final Array<String>       variableNames    = new Array<>();
+    private final Array<String>       variableValues   = new Array<>();
+    private final Array<String>       colorNames       = new Array<>();
+    private final BooleanArray        colorsRegistered = new BooleanArray();
+    private final EffectParams        tokenParams      = new EffectParams();
+    private final EffectParams        ifParams         = new EffectParams();
+    private       Descriptor          tokenDescriptor  = null;
+    private       int                 tokenParamsStart = -1;
+
+    // Source of variable values, either a label or a context. Tokens that depend on them aren't replaced if both are null.
+    private TypingLabel  label;
+    private ParseContext context;
 
     /** Parses all tokens from the given {@link TypingLabel}. */
     static void parseTokens(TypingLabel label) {
-        // Detect if token delimiter has changed
-        boolean hasDelimiterChanged = CURRENT_DELIMITER != TypingConfig.TOKEN_DELIMITER;
-        if(hasDelimiterChanged) {
-            CURRENT_DELIMITER = TypingConfig.TOKEN_DELIMITER;
-        }
+        parseTokens(label, label.getDefaultToken());
+    }
 
-        // Compile patterns if necessary
-        if(PATTERN_TOKEN_STRIP == null || TypingConfig.dirtyEffectMaps || hasDelimiterChanged) {
-            PATTERN_TOKEN_STRIP = compileTokenPattern();
-        }
-        if(RESET_REPLACEMENT == null || TypingConfig.dirtyEffectMaps || hasDelimiterChanged) {
-            RESET_REPLACEMENT = getResetReplacement();
-        }
+    /** Parses all tokens of the label's text, using the given default token instead of the label's. */
+    static void parseTokens(TypingLabel label, String defaultToken) {
+        SHARED.parseLabel(label, defaultToken);
+    }
+
+    /**
+     * Parses the given text without a label, as done ahead of time by {@link DialogueBundleCompiler}. Color markup is
+     * considered enabled. Tokens that depend on the label, namely {@code VAR}, {@code IF}, {@code CLEARCOLOR} and
+     * {@code ENDCOLOR}, aren't replaced but registered as zero-length entries of their own categories, so they can be
+     * resolved later. Effects aren't instantiated. Entries are kept in text order, without color markup entries.
+     *
+     * @return The stripped text.
+     */
+    static String compileTokens(CharSequence source, String defaultToken, Array<TokenEntry> entries) {
+        return SHARED.compile(source, defaultToken, entries);
+    }
+
+    /**
+     * Parses a fragment appended to the label's text on its own, registering its entries, color markups and variable
+     * spans in the given arrays, in text order. Indices are relative to the fragment.
+     *
+     * @return The stripped fragment.
+     */
+    static String parseFragment(TypingLabel label, CharSequence fragment, Array<TokenEntry> entries, Array<VariableSpan> spans) {
+        return SHARED.fragment(label, fragment, entries, spans);
+    }
+
+    private void parseLabel(TypingLabel label, String defaultToken) {
+        // Get a consistent snapshot of all known tokens
+        final TokenRegistry registry = TypingConfig.getTokenRegistry();
 
         // Adjust and check markup color
         if(label.forceMarkupColor) label.getBitmapFontCache().getFont().getData().markupEnabled = true;
 
         // Remove any previous entries
         label.tokenEntries.clear();
+        label.variableSpans.clear();
 
-        // Parse all tokens with text replacements, namely color and var.
-        parseReplacements(label);
+        // Try to reuse a previous parse of the same text
+        final ParseCache cache = TypingConfig.PARSE_CACHE;
+        if(cache != null && cache.restore(label, registry, defaultToken)) return;
+        final String sourceText = cache == null ? null : label.getText().toString();
+        setSource(label, null);
 
-        // Parse all regular tokens and properly register them
-        parseRegularTokens(label);
+        // Strip all tokens in a single pass, replacing text tokens and registering the regular ones
+        boolean hasMarkup = label.getBitmapFontCache().getFont().getData().markupEnabled;
+        parseAllTokens(registry, label.getText(), defaultToken, hasMarkup, label.tokenEntries, label.variableSpans);
+        label.setText(textBuffer, false, false);
 
         // Parse color markups and register SKIP tokens
-        parseColorMarkups(label);
+        parseColorMarkups(label.getText(), label.tokenEntries);
 
         // Sort token entries
         label.tokenEntries.sort();
         label.tokenEntries.reverse();
+
+        // Store results for later
+        if(cache != null) {
+            cache.store(label, registry, defaultToken, sourceText, variableNames, variableValues, colorNames, colorsRegistered);
+        }
+        setSource(null, null);
     }
 
-    /** Parse tokens that only replace text, such as colors and variables. */
-    private static void parseReplacements(TypingLabel label) {
-        // Get text
-        CharSequence text = label.getText();
+    private String compile(CharSequence source, String defaultToken, Array<TokenEntry> entries) {
+        setSource(null, null);
+        parseAllTokens(TypingConfig.getTokenRegistry(), source, defaultToken, true, entries, null);
+        return textBuffer.toString();
+    }
+
+    private String fragment(TypingLabel label, CharSequence fragment, Array<TokenEntry> entries, Array<VariableSpan> spans) {
+        // Adjust and check markup color
+        if(label.forceMarkupColor) label.getBitmapFontCache().getFont().getData().markupEnabled = true;
         boolean hasMarkup = label.getBitmapFontCache().getFont().getData().markupEnabled;
 
-        // Create string builder
-        StringBuilder sb = new StringBuilder(text.length());
-        Matcher m = PATTERN_TOKEN_STRIP.matcher(text);
-        int matcherIndexOffset = 0;
+        setSource(label, null);
+        parseAllTokens(TypingConfig.getTokenRegistry(), fragment, label.getDefaultToken(), hasMarkup, entries, spans);
+        String text = textBuffer.toString();
+        parseColorMarkups(text, entries);
+        setSource(null, null);
+        return text;
+    }
 
-        // Iterate through matches
+    /**
+     * Parses the given text with the state captured by the given context, without accessing any label. Effects aren't
+     * instantiated, only their params are kept. Safe to call from any thread, as long as this instance isn't shared.
+     */
+    ParsedText parse(CharSequence sourceText, ParseContext context) {
+        setSource(null, context);
+        String defaultToken = context.defaultToken;
+        Array<TokenEntry> entries = new Array<>();
+        Array<VariableSpan> spans = new Array<>();
+        parseAllTokens(context.registry, defaultToken + sourceText, defaultToken, context.markupEnabled, entries, spans);
+        String text = textBuffer.toString();
+        parseColorMarkups(text, entries);
+        setSource(null, null);
+
+        // Sort token entries without Array.sort, whose sorter is shared by all threads
+        TokenEntry[] sortedEntries = new TokenEntry[entries.size];
+        for(int i = 0; i < sortedEntries.length; i++) {
+            sortedEntries[i] = entries.get(i);
+        }
+        Arrays.sort(sortedEntries);
+        for(int i = 0, j = sortedEntries.length - 1; i < j; i++, j--) {
+            TokenEntry entry = sortedEntries[i];
+            sortedEntries[i] = sortedEntries[j];
+            sortedEntries[j] = entry;
+        }
+        VariableSpan[] variableSpans = new VariableSpan[spans.size];
+        for(int i = 0; i < variableSpans.length; i++) {
+            variableSpans[i] = spans.get(i);
+        }
+        return new ParsedText(sourceText.toString(), text, sortedEntries, variableSpans, context);
+    }
+
+    /** Sets where variable values come from, and forgets the variables and colors referenced by the previous parse. */
+    private void setSource(TypingLabel label, ParseContext context) {
+        this.label = label;
+        this.context = context;
+        variableNames.clear();
+        variableValues.clear();
+        colorNames.clear();
+        colorsRegistered.clear();
+    }
+
+    /**
+     * Walks through the source text once, writing the stripped text to a reusable buffer. Tokens that only replace
+     * text, such as colors and variables, have their replacements lexed in place before the rest of the text, while
+     * regular tokens are registered in the given array with their index in the stripped text. If there's neither a
+     * label nor a context, tokens that depend on them are registered as entries instead of being replaced. Otherwise,
+     * the regions replaced by variables are registered in the given spans array.
+     */
+    private void parseAllTokens(TokenRegistry registry, CharSequence source, String defaultToken, boolean hasMarkup, Array<TokenEntry> entries, Array<VariableSpan> spans) {
+        // Reset buffers
+        StringBuilder text = textBuffer;
+        text.setLength(0);
+        sourceStack.clear();
+        positionStack.clear();
+
+        // Iterate through chars
+        final char open = registry.delimiter.open;
+        int position = 0;
         while(true) {
-            // Reset StringBuilder and matcher
-            sb.setLength(0);
-            m.setTarget(text);
-            m.setPosition(matcherIndexOffset);
+            // Once a replacement is fully lexed, resume the text it came from
+            if(position >= source.length()) {
+                if(sourceStack.size == 0) break;
+                source = sourceStack.pop();
+                position = positionStack.pop();
+                continue;
+            }
 
-            // Make sure there's at least one regex match
-            if(!m.find()) break;
+            // Copy regular chars straight to the stripped text
+            char c = source.charAt(position);
+            if(c != open) {
+                text.append(c);
+                position++;
+                continue;
+            }
+
+            // If there's no valid token here, keep the delimiter as text and move one index forward
+            int tokenEnd = matchToken(registry, source, position);
+            if(tokenEnd < 0) {
+                text.append(c);
+                position++;
+                continue;
+            }
 
             // Get token and parameter
-            final InternalToken internalToken = InternalToken.fromName(m.group(INDEX_TOKEN));
-            final String param = m.group(INDEX_PARAM);
+            final Descriptor descriptor = tokenDescriptor;
+            final String tokenName = descriptor.name;
+            final String param = tokenParamsStart < 0 ? null : source.subSequence(tokenParamsStart, tokenEnd - 1).toString();
+            final InternalToken internalToken = descriptor.internalToken;
+
+            // Without a label or context, keep tokens that depend on them for later
+            if(label == null && context == null && isLabelDependent(internalToken)) {
+                TokenEntry entry = new TokenEntry(tokenName, internalToken.category, text.length(), 0, param);
+                entry.sequence = entries.size;
+                entries.add(entry);
+                position = tokenEnd;
+                continue;
+            }
 
-            // If token couldn't be parsed, move one index forward to continue the search
-            if(internalToken == null) {
-                matcherIndexOffset++;
+            // Process tokens with text replacements and lex their replacement before the remaining text
+            String replacement = internalToken == null ? null : getReplacement(registry, internalToken, param, defaultToken, hasMarkup);
+            if(replacement != null && spans != null && (internalToken == InternalToken.VAR || internalToken == InternalToken.IF)) {
+                boolean spliceable = sourceStack.size == 0 && isPlainText(replacement, open, hasMarkup) && !isInsideColorTag(text, text.length(), hasMarkup);
+                spans.add(new VariableSpan(internalToken.category, param, replacement, text.length(), entries.size, spliceable));
+            }
+            if(replacement != null) {
+                if(replacement.length() > 0) {
+                    sourceStack.add(source);
+                    positionStack.add(tokenEnd);
+                    source = replacement;
+                    position = 0;
+                } else {
+                    position = tokenEnd;
+                }
                 continue;
             }
 
-            // Process tokens and handle replacement
-            String replacement = "";
-            switch(internalToken) {
-                case COLOR:
-                    if(hasMarkup) replacement = stringToColorMarkup(param);
-                    break;
-                case ENDCOLOR:
-                case CLEARCOLOR:
-                    if(hasMarkup) replacement = "[#" + label.getClearColor().toString() + "]";
-                    break;
-                case VAR:
-                    replacement = null;
-
-                    // Try to replace variable through listeners.
-                    for(TypingListener listener : label.getTypingListeners()) {
-                        replacement = listener.replaceVariable(param);
-                        if(replacement != null) break;
-                    }
-
-                    // If replacement is null, get value from maps.
-                    if(replacement == null) {
-                        replacement = label.getVariables().get(param.toUpperCase());
-                    }
-
-                    // If replacement is still null, get value from global scope
-                    if(replacement == null) {
-                        replacement = TypingConfig.GLOBAL_VARS.get(param.toUpperCase());
-                    }
-
-                    // Make sure we're not inserting "null" to the text.
-                    if(replacement == null) replacement = param.toUpperCase();
-                    break;
-                case IF:
-                    // Process token
-                    replacement = processIfToken(label, param);
-
-                    // Make sure we're not inserting "null" to the text.
-                    if(replacement == null) replacement = param.toUpperCase();
-
-                    break;
-                case RESET:
-                    replacement = RESET_REPLACEMENT + label.getDefaultToken();
-                    break;
-                default:
-                    // We don't want to process this token now. Move one index forward to continue the search
-                    matcherIndexOffset++;
-                    continue;
+            // Register regular token in the current index of the stripped text
+            registerToken(registry, descriptor, param, text.length(), entries);
+            position = tokenEnd;
+        }
+    }
+
+    /** Returns whether or not the given text has no token delimiters and, if markup is enabled, no color markup. */
+    static boolean isPlainText(CharSequence text, char open, boolean hasMarkup) {
+        for(int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if(c == open || (hasMarkup && (c == '[' || c == ']'))) return false;
+        }
+        return true;
+    }
+
+    /** Returns whether or not the given index of the text is within a color markup tag. */
+    static boolean isInsideColorTag(CharSequence text, int index, boolean hasMarkup) {
+        if(!hasMarkup) return false;
+        index--;
+        while(index >= 0 && (isWordChar(text.charAt(index)) || text.charAt(index) == '#')) index--;
+        return index >= 0 && text.charAt(index) == '[' && (index == 0 || text.charAt(index - 1) != '[');
+    }
+
+    /** Returns whether or not the given token's replacement depends on the label's state. */
+    private static boolean isLabelDependent(InternalToken token) {
+        if(token == null) return false;
+        switch(token) {
+            case VAR:
+            case IF:
+            case CLEARCOLOR:
+            case ENDCOLOR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns the index right after the token starting at the given index, or {@code -1} if there's no known token
+     * there. Mirrors the format <tt>{TOKEN=PARAMS}</tt>, where the token name is case insensitive and params are
+     * optional. The token's descriptor and the start of its params are stored in {@link #tokenDescriptor} and
+     * {@link #tokenParamsStart}.
+     */
+    private int matchToken(TokenRegistry registry, CharSequence source, int start) {
+        final char open = registry.delimiter.open;
+        final char close = registry.delimiter.close;
+        final int length = source.length();
+
+        // Find the end of the token name
+        int index = start + 1;
+        while(index < length) {
+            char c = source.charAt(index);
+            if(c == '=' || c == close || c == open) break;
+            index++;
+        }
+        if(index >= length || index == start + 1 || source.charAt(index) == open) return -1;
+        int nameEnd = index;
+
+        // Find params, if any
+        int paramsStart = -1;
+        if(source.charAt(index) == '=') {
+            paramsStart = ++index;
+            while(index < length && isParamChar(source.charAt(index))) {
+                index++;
             }
+            if(index == paramsStart || index >= length || source.charAt(index) != close) return -1;
+        }
+
+        // Make sure the token is known
+        Descriptor descriptor = registry.find(source, start + 1, nameEnd);
+        if(descriptor == null) return -1;
+
+        tokenDescriptor = descriptor;
+        tokenParamsStart = paramsStart;
+        return index + 1;
+    }
 
-            // Update text with replacement
-            m.setPosition(m.start());
-            text = m.replaceFirst(replacement);
+    /** Returns whether or not the given char can be part of token params. */
+    private static boolean isParamChar(char c) {
+        switch(c) {
+            case ' ':
+            case '#':
+            case '$':
+            case '%':
+            case '&':
+            case '\'':
+            case '*':
+            case '+':
+            case ',':
+            case '-':
+            case '.':
+            case ':':
+            case ';':
+            case '=':
+            case '?':
+            case '^':
+                return true;
+            default:
+                return isWordChar(c);
         }
+    }
 
-        // Set new text
-        label.setText(text, false, false);
+    /** Returns whether or not the given char is an ASCII letter, digit or underscore. */
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
     }
 
-    private static String processIfToken(TypingLabel label, String paramsString) {
-        // Split params
-        final String[] params = paramsString == null ? new String[0] : paramsString.split(";");
-        final String variable = params.length > 0 ? params[0] : null;
+    /** Returns the text replacement of the given token, or null if this token doesn't replace text. */
+    private String getReplacement(TokenRegistry registry, InternalToken internalToken, String param, String defaultToken, boolean hasMarkup) {
+        String replacement = "";
+        switch(internalToken) {
+            case COLOR:
+                if(hasMarkup) replacement = stringToColorMarkup(param);
+                break;
+            case ENDCOLOR:
+            case CLEARCOLOR:
+                if(hasMarkup) replacement = context != null ? context.clearColorMarkup : getClearColorMarkup(label);
+                break;
+            case VAR:
+                // Get variable's value
+                replacement = getVariableValue(param);
 
-        // Ensure our params are valid
-        if(params.length <= 1 || variable == null) {
-            return null;
+                // Make sure we're not inserting "null" to the text.
+                if(replacement == null) replacement = param.toUpperCase();
+                break;
+            case IF:
+                // Process token
+                replacement = processIfToken(param);
+
+                // Make sure we're not inserting "null" to the text.
+                if(replacement == null) replacement = param.toUpperCase();
+
+                break;
+            case RESET:
+                replacement = registry.resetReplacement + defaultToken;
+                break;
+            default:
+                // This token doesn't replace text
+                return null;
         }
+        return replacement;
+    }
 
-        /*
-            Get variable's value
-         */
-        String variableValue = null;
+    /**
+     * Returns the value of the given variable, trying the label's listeners first, then the label's variables and then
+     * the global ones. Returns null if the variable isn't set anywhere.
+     */
+    static String getVariableValue(TypingLabel label, String variable) {
+        String value = null;
 
-        // Try to get value through listener.
+        // Try to get value through listeners.
         for(TypingListener listener : label.getTypingListeners()) {
-            variableValue = listener.replaceVariable(variable);
-            if(variableValue != null) break;
+            value = listener.replaceVariable(variable);
+            if(value != null) break;
         }
 
         // If value is null, get it from maps.
-        if(variableValue == null) {
-            variableValue = label.getVariables().get(variable.toUpperCase());
+        if(value == null) {
+            value = label.getVariables().get(variable.toUpperCase());
         }
 
         // If value is still null, get it from global scope
-        if(variableValue == null) {
-            variableValue = TypingConfig.GLOBAL_VARS.get(variable.toUpperCase());
+        if(value == null) {
+            value = TypingConfig.GLOBAL_VARS.get(variable.toUpperCase());
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the value of the given variable from the current context or label, keeping track of it along with the
+     * value it had.
+     */
+    private String getVariableValue(String variable) {
+        String value = context != null ? context.getVariable(variable) : getVariableValue(label, variable);
+        variableNames.add(variable);
+        variableValues.add(value);
+        return value;
+    }
+
+    /** Returns the replacement of an {@code IF} token with the given params, resolving variables with the given label. */
+    static String processIfToken(TypingLabel label, String paramsString) {
+        SHARED.setSource(label, null);
+        String replacement = SHARED.processIfToken(paramsString);
+        SHARED.setSource(null, null);
+        return replacement;
+    }
+
+    private String processIfToken(String paramsString) {
+        // Split params
+        final EffectParams params = ifParams.set(paramsString);
+
+        // Ensure our params are valid
+        if(params.size() <= 1) {
+            return null;
         }
+        final String variable = params.getString(0, null);
+
+        // Get variable's value
+        String variableValue = getVariableValue(variable);
 
         // Ensure variable is never null
         if(variableValue == null) {
@@ -189,21 +453,21 @@ class Parser {
 
         // Iterate through params and try to find a match
         String defaultValue = null;
-        for(int i = 1, n = params.length; i < n; i++) {
-            String[] subParams = params[i].split("=", 2);
-            String key = subParams[0];
-            String value = subParams[subParams.length - 1];
-            boolean isKeyValid = subParams.length > 1 && !key.isEmpty();
+        for(int i = 1, n = params.size(); i < n; i++) {
+            int start = params.start(i);
+            int end = params.end(i);
+            int separator = params.indexOf(i, '=');
+            boolean isKeyValid = separator > start;
 
             // If key isn't valid, it must be a default value. Store it and carry on
             if(!isKeyValid) {
-                defaultValue = value;
+                defaultValue = params.substring(separator < 0 ? start : separator + 1, end);
                 break;
             }
 
             // Compare variable's value with key
-            if(variableValue.equalsIgnoreCase(key)) {
-                return value;
+            if(variableValue.length() == separator - start && params.regionMatchesIgnoreCase(start, variableValue)) {
+                return params.substring(separator + 1, end);
             }
         }
 
@@ -217,146 +481,141 @@ class Parser {
         return variable;
     }
 
-    /** Parses regular tokens that don't need replacement and register their indexes in the {@link TypingLabel}. */
-    private static void parseRegularTokens(TypingLabel label) {
-        // Get text
-        CharSequence text = label.getText();
-
-        // Create matcher and StringBuilder
-        Matcher m = PATTERN_TOKEN_STRIP.matcher(text);
-        StringBuilder sb = new StringBuilder(text.length());
-        int matcherIndexOffset = 0;
-
-        // Iterate through matches
-        while(true) {
-            // Reset matcher and StringBuilder
-            m.setTarget(text);
-            sb.setLength(0);
-            m.setPosition(matcherIndexOffset);
-
-            // Make sure there's at least one regex match
-            if(!m.find()) break;
-
-            // Get token name and category
-            String tokenName = m.group(INDEX_TOKEN).toUpperCase();
-            TokenCategory tokenCategory = null;
-            InternalToken tmpToken = InternalToken.fromName(tokenName);
-            if(tmpToken == null) {
-                if(TypingConfig.EFFECT_START_TOKENS.containsKey(tokenName)) {
-                    tokenCategory = TokenCategory.EFFECT_START;
-                } else if(TypingConfig.EFFECT_END_TOKENS.containsKey(tokenName)) {
-                    tokenCategory = TokenCategory.EFFECT_END;
-                }
-            } else {
-                tokenCategory = tmpToken.category;
+    /** Registers a regular token that doesn't need replacement in the given index. Effects are only created if there's a label. */
+    private void registerToken(TokenRegistry registry, Descriptor descriptor, String paramsString, int index, Array<TokenEntry> entries) {
+        // Get params
+        final EffectParams params = tokenParams.set(paramsString);
+        int indexOffset = 0;
+
+        // Process tokens
+        final String tokenName = descriptor.name;
+        final TokenCategory tokenCategory = descriptor.category;
+        float floatValue = 0;
+        String stringValue = null;
+        int effectId = -1;
+        Effect effect = null;
+
+        switch(tokenCategory) {
+            case WAIT: {
+                floatValue = params.getFloat(0, TypingConfig.DEFAULT_WAIT_VALUE);
+                break;
             }
-
-            // Get token, param and index of where the token begins
-            int groupCount = m.groupCount();
-            final String paramsString = groupCount == INDEX_PARAM ? m.group(INDEX_PARAM) : null;
-            final String[] params = paramsString == null ? new String[0] : paramsString.split(";");
-            final String firstParam = params.length > 0 ? params[0] : null;
-            final int index = m.start(0);
-            int indexOffset = 0;
-
-            // If token couldn't be parsed, move one index forward to continue the search
-            if(tokenCategory == null) {
-                matcherIndexOffset++;
-                continue;
+            case EVENT: {
+                stringValue = paramsString;
+                indexOffset = -1;
+                break;
             }
-
-            // Process tokens
-            float floatValue = 0;
-            String stringValue = null;
-            Effect effect = null;
-
-            switch(tokenCategory) {
-                case WAIT: {
-                    floatValue = stringToFloat(firstParam, TypingConfig.DEFAULT_WAIT_VALUE);
-                    break;
-                }
-                case EVENT: {
-                    stringValue = paramsString;
-                    indexOffset = -1;
-                    break;
-                }
-                case SPEED: {
-                    switch(tokenName) {
-                        case "SPEED":
-                            float minModifier = TypingConfig.MIN_SPEED_MODIFIER;
-                            float maxModifier = TypingConfig.MAX_SPEED_MODIFIER;
-                            float modifier = MathUtils.clamp(stringToFloat(firstParam, 1), minModifier, maxModifier);
-                            floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR / modifier;
-                            break;
-                        case "SLOWER":
-                            floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR / 0.500f;
-                            break;
-                        case "SLOW":
-                            floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR / 0.667f;
-                            break;
-                        case "NORMAL":
-                            floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR;
-                            break;
-                        case "FAST":
-                            floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR / 2.000f;
-                            break;
-                        case "FASTER":
-                            floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR / 4.000f;
-                            break;
-                    }
-                    break;
-                }
-                case EFFECT_START: {
-                    Class<? extends Effect> clazz = TypingConfig.EFFECT_START_TOKENS.get(tokenName.toUpperCase());
-                    try {
-                        if(clazz != null) {
-                            Constructor constructor = ClassReflection.getConstructors(clazz)[0];
-                            int constructorParamCount = constructor.getParameterTypes().length;
-                            if(constructorParamCount >= 2) {
-                                effect = (Effect) constructor.newInstance(label, params);
-                            } else {
-                                effect = (Effect) constructor.newInstance(label);
-                            }
-                        }
-                    } catch(ReflectionException e) {
-                        String message = "Failed to initialize " + tokenName + " effect token. Make sure the associated class (" + clazz + ") has only one constructor with TypingLabel as first parameter and optionally String[] as second.";
-                        throw new IllegalStateException(message, e);
-                    }
-                    break;
-                }
-                case EFFECT_END: {
-                    break;
+            case SPEED: {
+                switch(descriptor.internalToken) {
+                    case SPEED:
+                        float minModifier = TypingConfig.MIN_SPEED_MODIFIER;
+                        float maxModifier = TypingConfig.MAX_SPEED_MODIFIER;
+                        float modifier = MathUtils.clamp(params.getFloat(0, 1), minModifier, maxModifier);
+                        floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR / modifier;
+                        break;
+                    case SLOWER:
+                        floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR / 0.500f;
+                        break;
+                    case SLOW:
+                        floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR / 0.667f;
+                        break;
+                    case NORMAL:
+                        floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR;
+                        break;
+                    case FAST:
+                        floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR / 2.000f;
+                        break;
+                    case FASTER:
+                        floatValue = TypingConfig.DEFAULT_SPEED_PER_CHAR / 4.000f;
+                        break;
                 }
+                break;
             }
+            case EFFECT_START: {
+                effectId = descriptor.effectStartId;
+                if(label != null) effect = createEffect(label, descriptor.effectFactory, paramsString, tokenParams);
+                break;
+            }
+            case EFFECT_END: {
+                effectId = descriptor.effectEndId;
+                break;
+            }
+        }
 
-            // Register token
-            TokenEntry entry = new TokenEntry(tokenName, tokenCategory, index + indexOffset, floatValue, stringValue);
-            entry.effect = effect;
-            label.tokenEntries.add(entry);
+        // Register token
+        TokenEntry entry = new TokenEntry(tokenName, tokenCategory, index + indexOffset, floatValue, stringValue);
+        entry.sequence = entries.size;
+        entry.effectId = effectId;
+        entry.closedEffectIds = registry.getClosedEffectIds(effectId);
+        entry.effect = effect;
+        if(tokenCategory == TokenCategory.EFFECT_START) entry.params = paramsString;
+        entries.add(entry);
+    }
 
-            // Set new text without tokens
-            m.setPosition(0);
-            text = m.replaceFirst("");
-        }
+    /**
+     * Creates a new effect for the given upper case start token. Returns null if the token has no effect registered.
+     * Must be called from the render thread.
+     */
+    static Effect createEffect(TypingLabel label, TokenRegistry registry, String tokenName, String params) {
+        return createEffect(label, registry.getEffectFactory(tokenName), params, SHARED.tokenParams);
+    }
 
-        // Update label text
-        label.setText(text, false, false);
+    private static Effect createEffect(TypingLabel label, EffectFactory factory, String params, EffectParams view) {
+        return factory == null ? null : factory.create(label, view.set(params));
     }
 
     /** Parse color markup tags and register SKIP tokens. */
-    private static void parseColorMarkups(TypingLabel label) {
-        // Get text
-        final CharSequence text = label.getText();
-
-        // Iterate through matches and register skip tokens
-        Matcher m = PATTERN_MARKUP_STRIP.matcher(text);
-        while(m.find()) {
-            final String tag = m.group(0);
-            final int index = m.start(0);
-            label.tokenEntries.add(new TokenEntry("SKIP", TokenCategory.SKIP, index, 0, tag));
+    static void parseColorMarkups(CharSequence text, Array<TokenEntry> entries) {
+        // Iterate through tags and register skip tokens
+        for(int i = 0, n = text.length(); i < n; i++) {
+            if(text.charAt(i) != '[') continue;
+
+            // Find the end of the tag, which is either an escaped bracket or a color name or hex code
+            int end = i + 1;
+            if(end < n && text.charAt(end) == '[') {
+                end++;
+            } else {
+                if(end < n && text.charAt(end) == '#') end++;
+                while(end < n && isWordChar(text.charAt(end))) end++;
+                if(end < n && (text.charAt(end) == '[' || text.charAt(end) == ']')) end++;
+            }
+
+            final String tag = text.subSequence(i, end).toString();
+            entries.add(new TokenEntry("SKIP", TokenCategory.SKIP, i, 0, tag));
+            i = end - 1;
         }
     }
 
+    /** Returns the color markup tags that are still open at the given index of the text, in the order they were opened. */
+    static String getOpenColorTags(CharSequence text, int end) {
+        IntArray tags = new IntArray();
+        for(int i = 0; i < end; i++) {
+            if(text.charAt(i) != '[') continue;
+
+            // Skip escaped brackets, pop closing tags and push color tags
+            int tagEnd = i + 1;
+            if(tagEnd < end && text.charAt(tagEnd) == '[') {
+                i = tagEnd;
+                continue;
+            }
+            if(tagEnd < end && text.charAt(tagEnd) == '#') tagEnd++;
+            while(tagEnd < end && isWordChar(text.charAt(tagEnd))) tagEnd++;
+            if(tagEnd >= end || text.charAt(tagEnd) != ']') continue;
+            if(tagEnd == i + 1) {
+                if(tags.size > 0) tags.size -= 2;
+            } else {
+                tags.add(i, tagEnd + 1);
+            }
+            i = tagEnd;
+        }
+
+        StringBuilder openTags = new StringBuilder();
+        for(int i = 0; i < tags.size; i += 2) {
+            openTags.append(text, tags.get(i), tags.get(i + 1));
+        }
+        return openTags.toString();
+    }
+
     /** Returns a float value parsed from the given String, or the default value if the string couldn't be parsed. */
     static float stringToFloat(String str, float defaultValue) {
         if(str != null) {
@@ -402,14 +661,24 @@ class Parser {
         return null;
     }
 
-    /** Encloses the given string in brackets to work as a regular color markup tag. */
-    private static String stringToColorMarkup(String str) {
+    /** Returns the color markup tag used to replace {@code CLEARCOLOR} tokens in the given label. */
+    static String getClearColorMarkup(TypingLabel label) {
+        return "[#" + label.getClearColor().toString() + "]";
+    }
+
+    /**
+     * Encloses the given string in brackets to work as a regular color markup tag, keeping track of whether or not it
+     * was registered as a named color.
+     */
+    private String stringToColorMarkup(String str) {
         if(str != null) {
             // Upper case
             str = str.toUpperCase();
 
             // If color isn't registered by name, try to parse it as an hex code.
             Color namedColor = Colors.get(str);
+            colorNames.add(str);
+            colorsRegistered.add(namedColor != null);
             if(namedColor == null) {
                 boolean isHexWithoutHashChar = str.length() >= 6 && PATTERN_COLOR_HEX_NO_HASH.matches(str);
                 if(isHexWithoutHashChar) {
@@ -422,39 +691,4 @@ class Parser {
         return "[" + str + "]";
     }
 
-    /**
-     * Returns a compiled {@link Pattern} that groups the token name in the first group and the params in an optional second one. Case
-     * insensitive.
-     */
-    private static Pattern compileTokenPattern() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("\\").append(CURRENT_DELIMITER.open).append("(");
-        Array<String> tokens = new Array<>();
-        TypingConfig.EFFECT_START_TOKENS.keys().toArray(tokens);
-        TypingConfig.EFFECT_END_TOKENS.keys().toArray(tokens);
-        for(InternalToken token : InternalToken.values()) {
-            tokens.add(token.name);
-        }
-        for(int i = 0; i < tokens.size; i++) {
-            sb.append(tokens.get(i));
-            if((i + 1) < tokens.size) sb.append('|');
-        }
-        sb.append(")(?:=([;:?=^_ #-'*-.\\.\\w]+))?\\").append(CURRENT_DELIMITER.close);
-        return Pattern.compile(sb.toString(), REFlags.IGNORE_CASE);
-    }
-
-    /** Returns the replacement string intended to be used on {RESET} tokens. */
-    private static String getResetReplacement() {
-        Array<String> tokens = new Array<>();
-        TypingConfig.EFFECT_END_TOKENS.keys().toArray(tokens);
-        tokens.add("CLEARCOLOR");
-        tokens.add("NORMAL");
-
-        StringBuilder sb = new StringBuilder();
-        for(String token : tokens) {
-            sb.append(CURRENT_DELIMITER.open).append(token).append(CURRENT_DELIMITER.close);
-        }
-        return sb.toString();
-    }
-
 }
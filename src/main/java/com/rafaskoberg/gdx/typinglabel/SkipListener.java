@@ -0,0 +1,20 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Optional interface for {@link TypingListener}s that want to receive the events skipped by
+ * {@link TypingLabel#skipToTheEnd(boolean)} all at once, instead of one {@link TypingListener#event(String)} call per
+ * event. Already implemented by {@link TypingAdapter}.
+ */
+public interface SkipListener {
+
+    /**
+     * Called once when a skip reaches the end, with all {@code EVENT} tokens it went through, in text order. Not called
+     * if events are ignored or if there were none.
+     *
+     * @param events Names of the skipped events. Only valid during this call, so copy it if needed.
+     */
+    public void eventsSkipped(Array<String> events);
+
+}
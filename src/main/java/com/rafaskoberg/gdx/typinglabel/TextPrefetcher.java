@@ -0,0 +1,107 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/**
+ * Parses upcoming texts in the background with an {@link AsyncExecutor}, so labels can start them without parsing on
+ * the render thread. Prefetch the next lines of a dialogue while the current one is being typed, then hand them over
+ * with {@link TypingLabel#queueText(AsyncResult)}:
+ *
+ * <pre>
+ * ParseContext context = new ParseContext(label);
+ * prefetcher.prefetch(lines[i + 1], context);
+ * // Later, when the next line should start
+ * label.queueText(prefetcher.take(lines[i + 1], context));
+ * </pre>
+ * <p>
+ * All methods must be called from the render thread. On GWT, texts are parsed right away.
+ */
+public class TextPrefetcher implements Disposable {
+    private final AsyncExecutor               executor;
+    private final boolean                     ownsExecutor;
+    private final ObjectMap<String, Prefetch> prefetches = new ObjectMap<>();
+
+    /** Creates a prefetcher with its own executor, which parses one text at a time. */
+    public TextPrefetcher() {
+        this(new AsyncExecutor(1, "TextPrefetcher"), true);
+    }
+
+    /** Creates a prefetcher that submits its tasks to the given executor, which isn't disposed along with it. */
+    public TextPrefetcher(AsyncExecutor executor) {
+        this(executor, false);
+    }
+
+    private TextPrefetcher(AsyncExecutor executor, boolean ownsExecutor) {
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Starts parsing the given text in the background, unless it's already being prefetched with the same context.
+     *
+     * @return The pending result.
+     */
+    public AsyncResult<ParsedText> prefetch(CharSequence text, final ParseContext context) {
+        final String sourceText = text.toString();
+        Prefetch prefetch = prefetches.get(sourceText);
+        if(prefetch != null && prefetch.context == context) return prefetch.result;
+
+        AsyncResult<ParsedText> result = executor.submit(new AsyncTask<ParsedText>() {
+            @Override
+            public ParsedText call() {
+                return ParsedText.parse(sourceText, context);
+            }
+        });
+        prefetches.put(sourceText, new Prefetch(context, result));
+        return result;
+    }
+
+    /** Starts parsing all given texts in the background, in order. */
+    public void prefetchAll(Iterable<? extends CharSequence> texts, ParseContext context) {
+        for(CharSequence text : texts) {
+            prefetch(text, context);
+        }
+    }
+
+    /**
+     * Returns the pending result of the given text and stops keeping track of it. If the text wasn't prefetched with
+     * the same context, it starts being parsed now.
+     */
+    public AsyncResult<ParsedText> take(CharSequence text, ParseContext context) {
+        AsyncResult<ParsedText> result = prefetch(text, context);
+        prefetches.remove(text.toString());
+        return result;
+    }
+
+    /** Returns whether or not the given text is being prefetched, or was already parsed but not taken yet. */
+    public boolean isPrefetched(CharSequence text) {
+        return prefetches.containsKey(text.toString());
+    }
+
+    /** Stops keeping track of all prefetched texts. Texts already being parsed still finish in the background. */
+    public void clear() {
+        prefetches.clear();
+    }
+
+    @Override
+    public void dispose() {
+        clear();
+        if(ownsExecutor) executor.dispose();
+    }
+
+    /** Pending result of a text, along with the context it's being parsed with. */
+    private static class Prefetch {
+        final ParseContext            context;
+        final AsyncResult<ParsedText> result;
+
+        Prefetch(ParseContext context, AsyncResult<ParsedText> result) {
+            this.context = context;
+            this.result = result;
+        }
+    }
+
+}
@@ -3,12 +3,16 @@ package com.rafaskoberg.gdx.typinglabel;
 
 /** Container representing a token, parsed parameters and its position in text. */
 class TokenEntry implements Comparable<TokenEntry> {
-    String        token;
-    TokenCategory category;
-    int           index;
-    float         floatValue;
-    String        stringValue;
-    Effect        effect;
+    String                  token;
+    TokenCategory           category;
+    int                     index;
+    float                   floatValue;
+    String                  stringValue;
+    int                     effectId = -1; // Effect started or ended by this token
+    int[]                   closedEffectIds; // Effects ended by this token, resolved by the TokenRegistry
+    Effect                  effect;
+    String                  params;
+    int                     sequence = -1; // Order of this entry in the source text, or -1 for color markups
 
     TokenEntry(String token, TokenCategory category, int index, float floatValue, String stringValue) {
         this.token = token;
@@ -18,6 +22,15 @@ class TokenEntry implements Comparable<TokenEntry> {
         this.stringValue = stringValue;
     }
 
+    /** Creates a copy of the given entry, without its effect instance. */
+    TokenEntry(TokenEntry other) {
+        this(other.token, other.category, other.index, other.floatValue, other.stringValue);
+        this.effectId = other.effectId;
+        this.closedEffectIds = other.closedEffectIds;
+        this.params = other.params;
+        this.sequence = other.sequence;
+    }
+
     @Override
     public int compareTo(TokenEntry o) {
         return Integer.compare(index, o.index);
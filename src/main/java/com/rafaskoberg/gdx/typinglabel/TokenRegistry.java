@@ -0,0 +1,203 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.reflect.ClassReflection;
+
+/**
+ * Immutable snapshot of all tokens known by the {@link Parser}, including the registered effects. A new snapshot is
+ * built by {@link TypingConfig} whenever effects are registered or unregistered, so a snapshot can be safely used by
+ * one thread while another one registers effects.
+ */
+final class TokenRegistry {
+    /** Version of the effect registrations this snapshot was built from. Always increases. */
+    final int            version;
+    final TokenDelimiter delimiter;
+
+    /** Hash of the registered effect tokens and their classes, stable across runs. Stored in compiled bundles. */
+    final int effectFingerprint;
+
+    /** Replacement string intended to be used on {RESET} tokens. */
+    final String resetReplacement;
+
+    private final ObjectMap<String, Descriptor>              descriptors;
+    private final ObjectMap<String, Class<? extends Effect>> effectStartTokens;
+    private final ObjectMap<String, Class<? extends Effect>> effectEndTokens;
+    private final ObjectMap<String, EffectFactory>           effectFactories;
+    private final ObjectIntMap<Class<? extends Effect>>      effectIds;
+
+    // Ids of the effects closed by the tokens of each effect id, which are the effect itself and its subclasses
+    private final int[][] closedEffectIds;
+
+    // Case insensitive trie of all token names. Nodes are linked to their first child and next sibling, and the root
+    // node is never a child, so 0 stands for no link.
+    private final char[]       nodeChars;
+    private final int[]        nodeChildren;
+    private final int[]        nodeSiblings;
+    private final Descriptor[] nodeDescriptors;
+    private       int          nodeCount = 1;
+
+    TokenRegistry(int version, TokenDelimiter delimiter, ObjectMap<String, Class<? extends Effect>> effectStartTokens, ObjectMap<String, Class<? extends Effect>> effectEndTokens, ObjectMap<String, EffectFactory> effectFactories, ObjectIntMap<Class<? extends Effect>> effectIds) {
+        this.version = version;
+        this.delimiter = delimiter;
+        this.effectStartTokens = new ObjectMap<>(effectStartTokens);
+        this.effectEndTokens = new ObjectMap<>(effectEndTokens);
+        this.effectFactories = new ObjectMap<>(effectFactories);
+        this.effectIds = new ObjectIntMap<>(effectIds);
+
+        // Resolve the class hierarchy of all effects once, so closing them doesn't need reflection
+        Class<?>[] effectClasses = new Class<?>[effectIds.size];
+        for(ObjectIntMap.Entry<Class<? extends Effect>> entry : this.effectIds.entries()) {
+            effectClasses[entry.value] = entry.key;
+        }
+        this.closedEffectIds = new int[effectClasses.length][];
+        IntArray closedIds = new IntArray();
+        for(int i = 0; i < effectClasses.length; i++) {
+            closedIds.clear();
+            for(int j = 0; j < effectClasses.length; j++) {
+                if(ClassReflection.isAssignableFrom(effectClasses[i], effectClasses[j])) closedIds.add(j);
+            }
+            closedEffectIds[i] = closedIds.toArray();
+        }
+
+        // Hash effect tokens regardless of their order
+        int fingerprint = 0;
+        for(ObjectMap.Entry<String, Class<? extends Effect>> entry : this.effectStartTokens.entries()) {
+            fingerprint += mix(entry.key.hashCode() * 31 + entry.value.getName().hashCode());
+        }
+        for(ObjectMap.Entry<String, Class<? extends Effect>> entry : this.effectEndTokens.entries()) {
+            fingerprint += mix(entry.key.hashCode() * 31 + entry.value.getName().hashCode() + 1);
+        }
+        this.effectFingerprint = fingerprint;
+
+        // Describe all token names
+        this.descriptors = new ObjectMap<>();
+        for(String token : this.effectStartTokens.keys()) {
+            describe(token, TokenCategory.EFFECT_START, null);
+        }
+        for(String token : this.effectEndTokens.keys()) {
+            if(!descriptors.containsKey(token)) describe(token, TokenCategory.EFFECT_END, null);
+        }
+        for(InternalToken token : InternalToken.values()) {
+            describe(token.name, token.category, token);
+        }
+
+        // Build trie
+        int maxNodes = 1;
+        for(String token : descriptors.keys()) {
+            maxNodes += token.length();
+        }
+        this.nodeChars = new char[maxNodes];
+        this.nodeChildren = new int[maxNodes];
+        this.nodeSiblings = new int[maxNodes];
+        this.nodeDescriptors = new Descriptor[maxNodes];
+        for(Descriptor descriptor : descriptors.values()) {
+            insert(descriptor);
+        }
+
+        // Create reset replacement
+        Array<String> tokens = new Array<>();
+        this.effectEndTokens.keys().toArray(tokens);
+        tokens.add("CLEARCOLOR");
+        tokens.add("NORMAL");
+        StringBuilder sb = new StringBuilder();
+        for(String token : tokens) {
+            sb.append(delimiter.open).append(token).append(delimiter.close);
+        }
+        this.resetReplacement = sb.toString();
+    }
+
+    private void describe(String token, TokenCategory category, InternalToken internalToken) {
+        descriptors.put(token, new Descriptor(token, category, internalToken, getEffectId(token, true), getEffectId(token, false), effectFactories.get(token)));
+    }
+
+    /** Adds the given descriptor to the trie. */
+    private void insert(Descriptor descriptor) {
+        String name = descriptor.name;
+        int node = 0;
+        for(int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            int child = nodeChildren[node];
+            while(child != 0 && nodeChars[child] != c) child = nodeSiblings[child];
+            if(child == 0) {
+                child = nodeCount++;
+                nodeChars[child] = c;
+                nodeSiblings[child] = nodeChildren[node];
+                nodeChildren[node] = child;
+            }
+            node = child;
+        }
+        nodeDescriptors[node] = descriptor;
+    }
+
+    /**
+     * Returns the descriptor of the token whose name is between the given indices of the source text, ignoring case, or
+     * null if the token isn't known. Doesn't allocate, unless the name has non-ASCII chars.
+     */
+    Descriptor find(CharSequence source, int start, int end) {
+        int node = 0;
+        for(int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if(c >= 'a' && c <= 'z') {
+                c -= 'a' - 'A';
+            } else if(c > 127) {
+                // Leave case conversions of other chars to String, which may even change their length
+                return descriptors.get(source.subSequence(start, end).toString().toUpperCase());
+            }
+            int child = nodeChildren[node];
+            while(child != 0 && nodeChars[child] != c) child = nodeSiblings[child];
+            if(child == 0) return null;
+            node = child;
+        }
+        return nodeDescriptors[node];
+    }
+
+    /** Scrambles the bits of the given hash, so sums of hashes don't collide easily. */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        return hash ^ hash >>> 16;
+    }
+
+    /** Returns the id of the effect associated with the given upper case start or end token, or -1 if there's none. */
+    int getEffectId(String tokenName, boolean isStart) {
+        Class<? extends Effect> effectClass = isStart ? effectStartTokens.get(tokenName) : effectEndTokens.get(tokenName);
+        return effectClass == null ? -1 : effectIds.get(effectClass, -1);
+    }
+
+    /** Returns the ids of the effects closed by the tokens of the given effect id, or null if the id is -1. */
+    int[] getClosedEffectIds(int effectId) {
+        return effectId < 0 ? null : closedEffectIds[effectId];
+    }
+
+    /** Returns the effect factory associated with the given upper case start token, or null if there's none. */
+    EffectFactory getEffectFactory(String tokenName) {
+        return effectFactories.get(tokenName);
+    }
+
+    /** Everything known about a token name, resolved when the registry is built. */
+    static final class Descriptor {
+        /** Upper case name of the token. */
+        final String        name;
+        final TokenCategory category;
+        /** Internal token with this name, or null if it's an effect token. */
+        final InternalToken internalToken;
+
+        /** Id of the effect started or ended by this token, or -1 if there's none. */
+        final int           effectStartId;
+        final int           effectEndId;
+        final EffectFactory effectFactory;
+
+        Descriptor(String name, TokenCategory category, InternalToken internalToken, int effectStartId, int effectEndId, EffectFactory effectFactory) {
+            this.name = name;
+            this.category = category;
+            this.internalToken = internalToken;
+            this.effectStartId = effectStartId;
+            this.effectEndId = effectEndId;
+            this.effectFactory = effectFactory;
+        }
+    }
+
+}
@@ -1,8 +1,10 @@
 
 package com.rafaskoberg.gdx.typinglabel;
 
+import com.badlogic.gdx.utils.Array;
+
 /** Simple listener for label events. You can derive from this and only override what you are interested in. */
-public class TypingAdapter implements TypingListener {
+public class TypingAdapter implements TypingListener, SkipListener {
 
     @Override
     public void event(String event) {
@@ -21,4 +23,12 @@ public class TypingAdapter implements TypingListener {
     public void onChar(Character ch) {
     }
 
+    /** Calls {@link #event(String)} for each skipped event, in order. */
+    @Override
+    public void eventsSkipped(Array<String> events) {
+        for(int i = 0; i < events.size; i++) {
+            event(events.get(i));
+        }
+    }
+
 }
@@ -3,6 +3,7 @@ package com.rafaskoberg.gdx.typinglabel;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.utils.ObjectFloatMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.rafaskoberg.gdx.typinglabel.effects.BlinkEffect;
 import com.rafaskoberg.gdx.typinglabel.effects.EaseEffect;
@@ -27,6 +28,18 @@ public class TypingConfig {
      */
     public static boolean FORCE_COLOR_MARKUP_BY_DEFAULT = true;
 
+    /**
+     * Whether or not new {@link TypingLabel} instances should skip effects and vertex updates while they're not visible.
+     * See {@link TypingLabel#setCulling(boolean)}. Default value is {@code false}.
+     */
+    public static boolean CULLING_BY_DEFAULT = false;
+
+    /**
+     * Whether or not new {@link TypingLabel} instances should render their glyphs without their font cache. See {@link
+     * TypingLabel#setDirectRendering(boolean)}. Default value is {@code false}.
+     */
+    public static boolean DIRECT_RENDERING_BY_DEFAULT = false;
+
     /** Default time in seconds that an empty {@code WAIT} token should wait for. Default value is {@code 0.250}. */
     public static float DEFAULT_WAIT_VALUE = 0.250f;
 
@@ -59,33 +72,83 @@ public class TypingConfig {
 
     /**
      * Returns a map of characters and their respective interval multipliers, of which the interval to the next char
-     * should be multiplied for.
+     * should be multiplied for. Changes apply to texts started afterwards. Labels can override it with their own
+     * {@link CharIntervals}.
      */
     public static ObjectFloatMap<Character> INTERVAL_MULTIPLIERS_BY_CHAR = new ObjectFloatMap<Character>();
 
+    /**
+     * Cache of parsed texts shared by all {@link TypingLabel} instances, so restarting a label with a text that was
+     * already parsed doesn't parse it again. Set to {@code null} to disable it. Defaults to 256 texts or 4 MB.
+     */
+    public static ParseCache PARSE_CACHE = new ParseCache(256, 4 * 1024 * 1024);
+
+    /**
+     * Cache of layouts shared by all {@link TypingLabel} instances, so labels with the same text, font, width and
+     * alignment don't calculate glyph positions again. Disabled by default, since cached layouts keep references to the
+     * glyphs of their fonts. When enabled, it must be cleared after disposing or regenerating fonts, e.g.
+     * {@code new LayoutCache(256, 2 * 1024 * 1024)}.
+     */
+    public static LayoutCache LAYOUT_CACHE = null;
+
     /** Map of global variables that affect all {@link TypingLabel} instances at once. */
     public static final ObjectMap<String, String> GLOBAL_VARS = new ObjectMap<>();
 
-    /** Map of start tokens and their effect classes. Internal use only. */
+    /** Table compiled from {@link #INTERVAL_MULTIPLIERS_BY_CHAR}. Internal use only. */
+    private static final CharIntervals             GLOBAL_CHAR_INTERVALS = new CharIntervals();
+    private static final ObjectFloatMap<Character> COMPILED_INTERVALS    = new ObjectFloatMap<>(); // Multipliers the table was compiled from
+
+    /** Map of start tokens and their effect classes. Guarded by itself. Internal use only. */
     static final ObjectMap<String, Class<? extends Effect>> EFFECT_START_TOKENS = new ObjectMap<>();
 
-    /** Map of end tokens and their effect classes. Internal use only. */
+    /** Map of end tokens and their effect classes. Guarded by {@link #EFFECT_START_TOKENS}. Internal use only. */
     static final ObjectMap<String, Class<? extends Effect>> EFFECT_END_TOKENS = new ObjectMap<>();
 
-    /** Whether or not effect tokens are dirty and need to be recalculated. */
-    static boolean dirtyEffectMaps = true;
+    /** Map of start tokens and their effect factories. Guarded by {@link #EFFECT_START_TOKENS}. Internal use only. */
+    static final ObjectMap<String, EffectFactory> EFFECT_FACTORIES = new ObjectMap<>();
+
+    /**
+     * Map of effect classes and their ids, assigned the first time each class is registered. Ids are never reused, so
+     * texts parsed before an effect is unregistered can still be closed. Guarded by {@link #EFFECT_START_TOKENS}.
+     * Internal use only.
+     */
+    static final ObjectIntMap<Class<? extends Effect>> EFFECT_IDS = new ObjectIntMap<>();
+
+    /** Version of the effect maps, increased each time an effect is registered or unregistered. */
+    private static int effectsVersion = 0;
+
+    /** Snapshot of all known tokens. Rebuilt lazily after changes to the effect maps or to the token delimiter. */
+    private static volatile TokenRegistry tokenRegistry;
 
     /**
-     * Registers a new effect to TypingLabel.
+     * Registers a new effect to TypingLabel. Effects are instantiated through their constructor, which is looked up by
+     * reflection on first use. See {@link #registerEffect(String, String, Class, EffectFactory)} to avoid reflection.
      *
      * @param startTokenName Name of the token that starts the effect, such as WAVE.
      * @param endTokenName   Name of the token that ends the effect, such as ENDWAVE.
      * @param effectClass    Class of the effect, such as WaveEffect.class.
      */
     public static void registerEffect(String startTokenName, String endTokenName, Class<? extends Effect> effectClass) {
-        EFFECT_START_TOKENS.put(startTokenName.toUpperCase(), effectClass);
-        EFFECT_END_TOKENS.put(endTokenName.toUpperCase(), effectClass);
-        dirtyEffectMaps = true;
+        registerEffect(startTokenName, endTokenName, effectClass, new ConstructorEffectFactory(effectClass));
+    }
+
+    /**
+     * Registers a new effect to TypingLabel, instantiated by the given factory.
+     *
+     * @param startTokenName Name of the token that starts the effect, such as WAVE.
+     * @param endTokenName   Name of the token that ends the effect, such as ENDWAVE.
+     * @param effectClass    Class of the effect, such as WaveEffect.class. Used to end the effect.
+     * @param factory        Factory that creates instances of the effect.
+     */
+    public static void registerEffect(String startTokenName, String endTokenName, Class<? extends Effect> effectClass, EffectFactory factory) {
+        synchronized(EFFECT_START_TOKENS) {
+            EFFECT_START_TOKENS.put(startTokenName.toUpperCase(), effectClass);
+            EFFECT_END_TOKENS.put(endTokenName.toUpperCase(), effectClass);
+            EFFECT_FACTORIES.put(startTokenName.toUpperCase(), factory);
+            if(!EFFECT_IDS.containsKey(effectClass)) EFFECT_IDS.put(effectClass, EFFECT_IDS.size);
+            effectsVersion++;
+            tokenRegistry = null;
+        }
     }
 
     /**
@@ -95,8 +158,55 @@ public class TypingConfig {
      * @param endTokenName   Name of the token that ends the effect, such as ENDWAVE.
      */
     public static void unregisterEffect(String startTokenName, String endTokenName) {
-        EFFECT_START_TOKENS.remove(startTokenName.toUpperCase());
-        EFFECT_END_TOKENS.remove(endTokenName.toUpperCase());
+        synchronized(EFFECT_START_TOKENS) {
+            EFFECT_START_TOKENS.remove(startTokenName.toUpperCase());
+            EFFECT_END_TOKENS.remove(endTokenName.toUpperCase());
+            EFFECT_FACTORIES.remove(startTokenName.toUpperCase());
+            effectsVersion++;
+            tokenRegistry = null;
+        }
+    }
+
+    /**
+     * Returns an immutable snapshot of all known tokens, which is only rebuilt after effects are registered or
+     * unregistered, or after the {@link #TOKEN_DELIMITER} changes. Internal use only.
+     */
+    static TokenRegistry getTokenRegistry() {
+        TokenRegistry registry = tokenRegistry;
+        if(registry == null || registry.delimiter != TOKEN_DELIMITER) {
+            synchronized(EFFECT_START_TOKENS) {
+                registry = tokenRegistry;
+                if(registry == null || registry.delimiter != TOKEN_DELIMITER) {
+                    registry = new TokenRegistry(effectsVersion, TOKEN_DELIMITER, EFFECT_START_TOKENS, EFFECT_END_TOKENS, EFFECT_FACTORIES, EFFECT_IDS);
+                    tokenRegistry = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Returns {@link #INTERVAL_MULTIPLIERS_BY_CHAR} compiled into a {@link CharIntervals} table, which is only compiled
+     * again if the map changed since the last call. Must be called from the render thread.
+     */
+    static CharIntervals getCharIntervals() {
+        if(!isCompiled(INTERVAL_MULTIPLIERS_BY_CHAR)) {
+            GLOBAL_CHAR_INTERVALS.clear();
+            GLOBAL_CHAR_INTERVALS.putAll(INTERVAL_MULTIPLIERS_BY_CHAR);
+            COMPILED_INTERVALS.clear();
+            COMPILED_INTERVALS.putAll(INTERVAL_MULTIPLIERS_BY_CHAR);
+        }
+        return GLOBAL_CHAR_INTERVALS;
+    }
+
+    /** Returns whether the given multipliers are the same ones the global table was compiled from. */
+    private static boolean isCompiled(ObjectFloatMap<Character> multipliers) {
+        if(multipliers.size != COMPILED_INTERVALS.size) return false;
+        for(ObjectFloatMap.Entry<Character> entry : multipliers.entries()) {
+            if(!COMPILED_INTERVALS.containsKey(entry.key)) return false;
+            if(Float.floatToIntBits(COMPILED_INTERVALS.get(entry.key, 0)) != Float.floatToIntBits(entry.value)) return false;
+        }
+        return true;
     }
 
     static {
@@ -109,19 +219,79 @@ public class TypingConfig {
         INTERVAL_MULTIPLIERS_BY_CHAR.put('?', 5.0f);
         INTERVAL_MULTIPLIERS_BY_CHAR.put('\n', 20f);
 
-        // Register default tokens
-        registerEffect("EASE", "ENDEASE", EaseEffect.class);
-        registerEffect("HANG", "ENDHANG", HangEffect.class);
-        registerEffect("JUMP", "ENDJUMP", JumpEffect.class);
-        registerEffect("SHAKE", "ENDSHAKE", ShakeEffect.class);
-        registerEffect("SICK", "ENDSICK", SickEffect.class);
-        registerEffect("SLIDE", "ENDSLIDE", SlideEffect.class);
-        registerEffect("WAVE", "ENDWAVE", WaveEffect.class);
-        registerEffect("WIND", "ENDWIND", WindEffect.class);
-        registerEffect("RAINBOW", "ENDRAINBOW", RainbowEffect.class);
-        registerEffect("GRADIENT", "ENDGRADIENT", GradientEffect.class);
-        registerEffect("FADE", "ENDFADE", FadeEffect.class);
-        registerEffect("BLINK", "ENDBLINK", BlinkEffect.class);
+        // Register default tokens, without reflection
+        registerEffect("EASE", "ENDEASE", EaseEffect.class, new EffectFactory() {
+            @Override
+            public Effect create(TypingLabel label, EffectParams params) {
+                return new EaseEffect(label, params);
+            }
+        });
+        registerEffect("HANG", "ENDHANG", HangEffect.class, new EffectFactory() {
+            @Override
+            public Effect create(TypingLabel label, EffectParams params) {
+                return new HangEffect(label, params);
+            }
+        });
+        registerEffect("JUMP", "ENDJUMP", JumpEffect.class, new EffectFactory() {
+            @Override
+            public Effect create(TypingLabel label, EffectParams params) {
+                return new JumpEffect(label, params);
+            }
+        });
+        registerEffect("SHAKE", "ENDSHAKE", ShakeEffect.class, new EffectFactory() {
+            @Override
+            public Effect create(TypingLabel label, EffectParams params) {
+                return new ShakeEffect(label, params);
+            }
+        });
+        registerEffect("SICK", "ENDSICK", SickEffect.class, new EffectFactory() {
+            @Override
+            public Effect create(TypingLabel label, EffectParams params) {
+                return new SickEffect(label, params);
+            }
+        });
+        registerEffect("SLIDE", "ENDSLIDE", SlideEffect.class, new EffectFactory() {
+            @Override
+            public Effect create(TypingLabel label, EffectParams params) {
+                return new SlideEffect(label, params);
+            }
+        });
+        registerEffect("WAVE", "ENDWAVE", WaveEffect.class, new EffectFactory() {
+            @Override
+            public Effect create(TypingLabel label, EffectParams params) {
+                return new WaveEffect(label, params);
+            }
+        });
+        registerEffect("WIND", "ENDWIND", WindEffect.class, new EffectFactory() {
+            @Override
+            public Effect create(TypingLabel label, EffectParams params) {
+                return new WindEffect(label, params);
+            }
+        });
+        registerEffect("RAINBOW", "ENDRAINBOW", RainbowEffect.class, new EffectFactory() {
+            @Override
+            public Effect create(TypingLabel label, EffectParams params) {
+                return new RainbowEffect(label, params);
+            }
+        });
+        registerEffect("GRADIENT", "ENDGRADIENT", GradientEffect.class, new EffectFactory() {
+            @Override
+            public Effect create(TypingLabel label, EffectParams params) {
+                return new GradientEffect(label, params);
+            }
+        });
+        registerEffect("FADE", "ENDFADE", FadeEffect.class, new EffectFactory() {
+            @Override
+            public Effect create(TypingLabel label, EffectParams params) {
+                return new FadeEffect(label, params);
+            }
+        });
+        registerEffect("BLINK", "ENDBLINK", BlinkEffect.class, new EffectFactory() {
+            @Override
+            public Effect create(TypingLabel label, EffectParams params) {
+                return new BlinkEffect(label, params);
+            }
+        });
     }
 
 }
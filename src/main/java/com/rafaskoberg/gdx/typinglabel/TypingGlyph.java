@@ -14,7 +14,55 @@ public class TypingGlyph extends Glyph {
     /** Internal index associated with this glyph. Internal use only. Defaults to -1. */
     int internalIndex = -1;
 
-    /** Color of this glyph. If set to null, the run's color will be used. Defaults to null. */
+    /** Vertex state of this glyph in the label's font cache. Internal use only. */
+    int   vertexIndex   = -1; // Index of the first vertex value in the glyph's page, or -1 if it has no vertices
+    float vertexX       = 0; // Pen position the glyph was laid out at, before offsets
+    float vertexY       = 0;
+    int   vertexXOffset = 0; // Offsets and color the vertices were last written with
+    int   vertexYOffset = 0;
+    float vertexColor   = 0;
+
+    /** Color of this glyph as an ABGR8888 int, used instead of the run's color while set. */
+    int     packedColor = 0xFFFFFFFF;
+    boolean hasColor    = false;
+
+    /**
+     * Color of this glyph. If set to null, the run's color will be used. Defaults to null. Takes precedence over the
+     * packed color while set, and is read when the glyph's vertices are written.
+     *
+     * @deprecated Use {@link #getColor()} and {@link #setColor(int)} instead, which don't need a {@link Color} per glyph.
+     */
+    @Deprecated
     public Color color = null;
 
+    /** Returns whether this glyph has its own color, instead of using the run's color. */
+    public boolean hasColor() {
+        return hasColor || color != null;
+    }
+
+    /** Returns the color of this glyph as an ABGR8888 int, or the run's color if it doesn't have its own. */
+    public int getColor() {
+        if(color != null) return color.toIntBits();
+        return hasColor ? packedColor : runColor;
+    }
+
+    /** Sets the color of this glyph, as an ABGR8888 int. */
+    public void setColor(int abgr8888) {
+        this.packedColor = abgr8888;
+        this.hasColor = true;
+        this.color = null;
+    }
+
+    /** Sets the color of this glyph. The given instance isn't kept. */
+    public void setColor(Color color) {
+        setColor(color.toIntBits());
+    }
+
+    /** Clears the color of this glyph, so the run's color is used again. */
+    public void clearColor() {
+        this.packedColor = 0xFFFFFFFF;
+        this.hasColor = false;
+        this.color = null;
+    }
+
 }
@@ -8,14 +8,20 @@ import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
 import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout.GlyphRun;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.utils.Drawable;
+import com.badlogic.gdx.scenes.scene2d.utils.ScissorStack;
 import com.badlogic.gdx.utils.*;
 import com.badlogic.gdx.utils.StringBuilder;
 import com.badlogic.gdx.utils.ObjectMap.Entry;
-import com.badlogic.gdx.utils.reflect.ClassReflection;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.viewport.Viewport;
 
 /**
  * An extension of {@link Label} that progressively shows the text as if it was being typed in real time, and allows the
@@ -27,12 +33,15 @@ public class TypingLabel extends Label {
     ///////////////////////
 
     // Collections
-    private final   ObjectMap<String, String> variables    = new ObjectMap<String, String>();
-    protected final Array<TokenEntry>         tokenEntries = new Array<TokenEntry>();
+    private final   ObjectMap<String, String> variables     = new ObjectMap<String, String>();
+    protected final Array<TokenEntry>         tokenEntries  = new Array<TokenEntry>();
+    final           Array<VariableSpan>       variableSpans = new Array<VariableSpan>();
 
     // Config
     private Color clearColor = new Color(TypingConfig.DEFAULT_CLEAR_COLOR);
-    private final Array<TypingListener> listeners = new Array<>(TypingListener.class);
+    private final Array<TypingListener> listeners        = new Array<>(TypingListener.class);
+    private final Array<CharListener>   charListeners    = new Array<>(CharListener.class);
+    private final Array<CharListener>   perCharListeners = new Array<>(CharListener.class); // Also called for each char
     boolean forceMarkupColor = TypingConfig.FORCE_COLOR_MARKUP_BY_DEFAULT;
 
     // Internal state
@@ -41,7 +50,9 @@ public class TypingLabel extends Label {
     private final IntArray           glyphRunCapacities    = new IntArray();
     private final IntArray           offsetCache           = new IntArray();
     private final IntArray           layoutLineBreaks      = new IntArray();
+    private       int                layoutLineBreakIndex  = 0; // Next layout line break to be consumed by the progression
     private final Array<Effect>      activeEffects         = new Array<Effect>();
+    private final Array<Array<Effect>> openEffects         = new Array<Array<Effect>>(); // Active effects without an end, by effect id
     private       float              textSpeed             = TypingConfig.DEFAULT_SPEED_PER_CHAR;
     private       float              charCooldown          = textSpeed;
     private       int                rawCharIndex          = -2; // All chars, including color codes
@@ -50,6 +61,7 @@ public class TypingLabel extends Label {
     private       int                cachedGlyphCharIndex  = -1; // Last glyphCharIndex sent to the cache
     private       float              lastLayoutX           = 0;
     private       float              lastLayoutY           = 0;
+    private       float              lastTextWidth         = 0; // Width the text was wrapped with in the last layout
     private       boolean            parsed                = false;
     private       boolean            paused                = false;
     private       boolean            ended                 = false;
@@ -57,13 +69,85 @@ public class TypingLabel extends Label {
     private       boolean            ignoringEvents        = false;
     private       boolean            ignoringEffects       = false;
     private       String             defaultToken          = "";
+    private       DialogueBundle     bundle                = null;
+    private       int                bundleLine            = -1;
+    private       boolean            textChangedInPlace    = false; // Indices count line breaks as chars until the next layout
+    private final Array<String>      refreshedValues       = new Array<String>();
+    private final Array<TokenEntry>  appendedEntries       = new Array<TokenEntry>();
+    private       int                maxLines              = -1; // Line budget of appended texts, unlimited if negative
+    private       int                maxGlyphs             = -1; // Glyph budget of appended texts, unlimited if negative
+    private       int                textLineBreaks        = 0; // Line breaks in the text, updated by appended and dropped lines
+    private       int                textLineBreaksLength  = -1; // Length of the text they were counted for, or -1 if unknown
+    private final Array<TokenEntry>  allTokenEntries       = new Array<TokenEntry>(); // In text order, including processed ones
+    private       boolean            tokenEntriesCaptured  = false;
+    private final FloatArray         revealTimes           = new FloatArray(); // Time each char is processed at
+    private       float              revealDuration        = 0;
+    private       boolean            revealTimelineValid   = false;
+    private       CharIntervals      charIntervals         = null; // Overrides the global intervals if set
+    private final FloatArray         charDelays            = new FloatArray(); // Interval multiplier of each char
+    private       boolean            charDelaysValid       = false;
+    private       int                charDelaysVersion     = 0; // Version of the label's intervals the delays were filled with
+    private       float              progressionTime       = 0; // Time the char progression has been running for
+    private       boolean            seeking               = false;
+    private       int                seekCharIndex         = -1; // Char a seek must process regardless of the time
+    private final Array<String>      skippedEvents         = new Array<String>();
+    private       boolean            idleCacheValid        = false; // Whether the font cache was built while idle
+    private       float              idleColor             = 0; // Packed color the idle font cache was built with
+    private       float              fixedStep             = 0; // Time step of the progression, variable if zero
+    private       float              stepAccumulator       = 0; // Time not consumed by fixed steps yet
+    private final RandomXS128        random                = new RandomXS128();
+    private       long               seed                  = 0;
+    private       boolean            seeded                = false;
+    private       boolean            culling               = TypingConfig.CULLING_BY_DEFAULT;
+    private       boolean            typingWhileCulled     = true;
+    private       boolean            culled                = false;
+    private       boolean            drawnSinceAct         = true; // Labels count as visible until they miss a draw
+    private       float              culledTime            = 0; // Time effects weren't applied for while culled
+    private       boolean            effectsPending        = false; // Whether effects were updated but not applied
+    private       boolean            verticesValid         = false; // Whether the font cache holds the vertices of the current layout
+    private       int                vertexGlyphCount      = 0; // Glyphs with vertices in the font cache
+    private       float              vertexColor           = 0; // Packed color the vertex colors were written with
+    private       int                effectRangeStart      = Integer.MAX_VALUE; // Glyphs effects were applied to since the last draw
+    private       int                effectRangeEnd        = -1;
+    private       int                lastEffectRangeStart  = Integer.MAX_VALUE; // Glyphs effects were applied to before the last draw
+    private       int                lastEffectRangeEnd    = -1;
+    private       int                rewrittenVertices     = 0; // Vertices written to the font cache in the last draw
+    private final GlyphLayout        appendLayout          = new GlyphLayout(); // Glyphs being appended to the font cache
+    private       int[]              pageVertexCounts      = new int[1];
+    private       boolean            directRendering       = TypingConfig.DIRECT_RENDERING_BY_DEFAULT;
+    private       float[][]          directVertices        = new float[0][]; // Vertices rendered without the font cache, by page
+    private       int[]              directVertexCounts    = new int[0];
+    private       float              directX               = 0; // Position the direct vertices were written at
+    private       float              directY               = 0;
+    private       boolean            layoutValid           = false; // Whether the glyphs were laid out with the state below
+    private final StringBuilder      layoutText            = new StringBuilder(); // State of the last layout
+    private       float              layoutWidth           = 0;
+    private       float              layoutHeight          = 0;
+    private       int                layoutLabelAlign      = 0;
+    private       int                layoutLineAlign       = 0;
+    private       float              layoutFontScaleX      = 1;
+    private       float              layoutFontScaleY      = 1;
+    private       boolean            layoutWrap            = false;
+    private       String             layoutEllipsis        = null;
+    private       boolean            layoutMarkup          = false;
+    private       BitmapFont         layoutFont            = null;
+    private       Drawable           layoutBackground      = null;
+
+    // Texts parsed ahead of time, waiting for the next act
+    private ParsedText              queuedText   = null;
+    private AsyncResult<ParsedText> queuedResult = null;
+
+    // Scheduler ticking this label instead of act, if any
+    TypingLabelScheduler.Entry schedulerEntry = null;
 
     // Superclass mirroring
     boolean wrap;
     String  ellipsis;
     float   lastPrefHeight;
     boolean fontScaleChanged = false;
-    private static final Color tempColor = new Color();
+    private static final Color     tempColor   = new Color();
+    private static final Rectangle tempBounds  = new Rectangle();
+    private static final Rectangle tempScissor = new Rectangle();
 
     ////////////////////////////
     /// --- Constructors --- ///
@@ -129,13 +213,18 @@ public class TypingLabel extends Label {
     protected void setText(CharSequence newText, boolean modifyOriginalText, boolean restart) {
         final boolean hasEnded = this.hasEnded();
         super.setText(newText);
-        if(modifyOriginalText) saveOriginalText();
+        textLineBreaksLength = -1;
+        if(modifyOriginalText) {
+            saveOriginalText();
+            bundle = null;
+        }
         if(restart) {
             this.restart();
         }
         if(hasEnded) {
             this.skipToTheEnd(true, false);
         }
+        wake();
     }
 
     /** Similar to {@link #getText()}, but returns the original text with all the tokens unchanged. */
@@ -160,6 +249,7 @@ public class TypingLabel extends Label {
     protected void restoreOriginalText() {
         super.setText(originalText);
         this.parsed = false;
+        wake();
     }
 
     ////////////////////////////
@@ -181,6 +271,34 @@ public class TypingLabel extends Label {
         listeners.clear();
     }
 
+    /** Adds a {@link CharListener} to this label, which is notified about each revealed char as well. */
+    public void addCharListener(CharListener listener) {
+        addCharListener(listener, true);
+    }
+
+    /**
+     * Adds a {@link CharListener} to this label.
+     *
+     * @param perChar If {@code false}, only {@link CharListener#onChars(CharSequence, int, int)} is called, saving a
+     *                call per revealed char.
+     */
+    public void addCharListener(CharListener listener, boolean perChar) {
+        charListeners.add(listener);
+        if(perChar) perCharListeners.add(listener);
+    }
+
+    /** Removes a {@link CharListener} from this label. */
+    public void removeCharListener(CharListener listener) {
+        charListeners.removeValue(listener, true);
+        perCharListeners.removeValue(listener, true);
+    }
+
+    /** Clears all {@link CharListener}s associated with this label. */
+    public void clearCharListeners() {
+        charListeners.clear();
+        perCharListeners.clear();
+    }
+
     /**
      * Returns a {@link Color} instance with the color to be used on {@code CLEARCOLOR} tokens. Modify this instance to
      * change the token color. Default value is specified by {@link TypingConfig}.
@@ -191,6 +309,114 @@ public class TypingLabel extends Label {
         return clearColor;
     }
 
+    /** Returns the {@link CharIntervals} used by this label, or {@code null} if it uses the global ones. */
+    public CharIntervals getCharIntervals() {
+        return charIntervals;
+    }
+
+    /**
+     * Sets the {@link CharIntervals} used by this label instead of {@link TypingConfig#INTERVAL_MULTIPLIERS_BY_CHAR},
+     * which is useful to give each speaker their own cadence. Changes to the table apply right away. Set it to
+     * {@code null} to use the global ones again.
+     */
+    public void setCharIntervals(CharIntervals charIntervals) {
+        this.charIntervals = charIntervals;
+        this.charDelaysValid = false;
+    }
+
+    /** Returns the fixed time step of this label, or zero if it follows the frame rate. */
+    public float getFixedStep() {
+        return fixedStep;
+    }
+
+    /**
+     * Makes the char progression and effects of this label advance in steps of exactly the given time, regardless of
+     * the frame rate. Time passed to {@link #act(float)} is accumulated and consumed one step at a time, so the same
+     * text reveals the same chars, fires the same events and moves glyphs the same way at every step, no matter how
+     * frames are timed. Fast texts are sub-stepped as well. Along with {@link #setSeed(long)}, this allows replays and
+     * keeping labels in sync across machines. Set it to zero to follow the frame rate again.
+     */
+    public void setFixedStep(float fixedStep) {
+        this.fixedStep = Math.max(0, fixedStep);
+        this.stepAccumulator = 0;
+    }
+
+    /** Returns whether or not this label skips effects and vertex updates while it's not visible. */
+    public boolean isCulling() {
+        return culling;
+    }
+
+    /**
+     * Sets whether or not this label should skip effects and vertex updates while it's not visible, which is useful for
+     * long lists of animated labels where only a few are on screen at a time. Labels are culled when they aren't drawn,
+     * such as when they're outside the culling area of a {@link com.badlogic.gdx.scenes.scene2d.ui.ScrollPane}, or when
+     * they're drawn outside of the stage's viewport or the current scissor. Effects keep their time while culled, and
+     * catch up once this label is visible again. Defaults to {@link TypingConfig#CULLING_BY_DEFAULT}.
+     */
+    public void setCulling(boolean culling) {
+        this.culling = culling;
+        if(!culling) culled = false;
+    }
+
+    /** Returns whether or not this label was culled in the last {@link #act(float)}. */
+    public boolean isCulled() {
+        return culled;
+    }
+
+    /**
+     * Sets whether or not the char progression of this label keeps running while it's culled, which is the default.
+     * Otherwise it waits for this label to be visible again, as if it was paused.
+     */
+    public void setTypingWhileCulled(boolean typingWhileCulled) {
+        this.typingWhileCulled = typingWhileCulled;
+    }
+
+    /** Returns whether or not the char progression of this label keeps running while it's culled. */
+    public boolean isTypingWhileCulled() {
+        return typingWhileCulled;
+    }
+
+    /**
+     * Sets whether or not this label should render its glyphs straight from its own vertex arrays, grouped by font page,
+     * instead of through its {@link BitmapFontCache}. Both produce the same vertices, but rendering directly skips
+     * copying them into the cache as glyphs are revealed and translating them every time the label moves. The font
+     * cache isn't kept up to date while rendering directly. Defaults to {@link TypingConfig#DIRECT_RENDERING_BY_DEFAULT}.
+     */
+    public void setDirectRendering(boolean directRendering) {
+        if(this.directRendering == directRendering) return;
+        this.directRendering = directRendering;
+        verticesValid = false;
+        idleCacheValid = false;
+    }
+
+    /** Returns whether or not this label renders its glyphs without its {@link BitmapFontCache}. */
+    public boolean isDirectRendering() {
+        return directRendering;
+    }
+
+    /**
+     * Returns how many vertices were written in the last draw, four per glyph. Only glyphs that were revealed, or whose
+     * offsets or color changed, are written, unless the vertices had to be rebuilt.
+     */
+    public int getRewrittenVertices() {
+        return rewrittenVertices;
+    }
+
+    /**
+     * Seeds the random generator of this label, which effects use for their random patterns. The generator is seeded
+     * again whenever this label restarts, so the same text plays out the same way every time.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.seeded = true;
+        random.setSeed(seed);
+    }
+
+    /** Returns the random generator effects of this label should use, so they can be reproduced with a seed. */
+    public RandomXS128 getRandom() {
+        return random;
+    }
+
     /**
      * Sets whether or not this instance should enable markup color by force.
      *
@@ -213,6 +439,7 @@ public class TypingLabel extends Label {
     public void setDefaultToken(String defaultToken) {
         this.defaultToken = defaultToken == null ? "" : defaultToken;
         this.parsed = false;
+        wake();
     }
 
     /** Parses all tokens of this label. Use this after setting the text and any variables that should be replaced. */
@@ -220,6 +447,10 @@ public class TypingLabel extends Label {
         this.setText(getDefaultToken() + getText(), false, false);
         Parser.parseTokens(this);
         parsed = true;
+        tokenEntriesCaptured = false;
+        revealTimelineValid = false;
+        charDelaysValid = false;
+        wake();
     }
 
     /**
@@ -234,7 +465,8 @@ public class TypingLabel extends Label {
      * Skips the char progression to the end, showing the entire label. Useful for when users don't want to wait for too
      * long.
      *
-     * @param ignoreEvents If {@code true}, skipped events won't be reported to the listener.
+     * @param ignoreEvents If {@code true}, skipped events won't be reported to the listener. Otherwise they're reported
+     *                     all at once when the skip completes, see {@link SkipListener}.
      */
     public void skipToTheEnd(boolean ignoreEvents) {
         skipToTheEnd(ignoreEvents, false);
@@ -251,6 +483,7 @@ public class TypingLabel extends Label {
         skipping = true;
         ignoringEvents = ignoreEvents;
         ignoringEffects = ignoreEffects;
+        wake();
     }
 
     /**
@@ -273,6 +506,117 @@ public class TypingLabel extends Label {
         return skipping;
     }
 
+    /**
+     * Jumps the char progression to the given time since the start, as if it had been running all along. Tokens in
+     * between are processed, so the effects that would be active by then are active, with their time already advanced.
+     * Seeking backwards restarts this label first. Events in between are not reported to the listeners.
+     *
+     * @see #getRevealTime(int)
+     */
+    public void seekToTime(float time) {
+        seekToTime(time, false);
+    }
+
+    /**
+     * Jumps the char progression to the given time since the start, as if it had been running all along. Tokens in
+     * between are processed, so the effects that would be active by then are active, with their time already advanced.
+     * Seeking backwards restarts this label first.
+     *
+     * @param replayEvents If {@code true}, events in between are reported to the listeners.
+     * @see #getRevealTime(int)
+     */
+    public void seekToTime(float time, boolean replayEvents) {
+        seek(time, -1, replayEvents);
+    }
+
+    /**
+     * Jumps the char progression to the given time, processing at least all chars up to the given index, which keeps
+     * float rounding from leaving out the char a seek was aimed at.
+     */
+    private void seek(float time, int charIndex, boolean replayEvents) {
+        settle();
+
+        // Seeking backwards starts over, and so does seeking after skipping, since the time is lost
+        if(time < progressionTime || skipping) {
+            boolean wasPaused = paused;
+            restart();
+            paused = wasPaused;
+        }
+        if(!parsed) parseTokens();
+        validate();
+
+        // Advance time, then process everything that happened until then
+        float delta = time - progressionTime;
+        progressionTime = time;
+        for(int i = 0; i < activeEffects.size; i++) {
+            activeEffects.get(i).update(delta);
+        }
+        if(!ended) {
+            charCooldown -= delta;
+            seeking = true;
+            seekCharIndex = charIndex;
+            ignoringEvents = !replayEvents;
+            processCharProgression();
+            seeking = false;
+            seekCharIndex = -1;
+            ignoringEvents = false;
+        }
+        wake();
+    }
+
+    /**
+     * Jumps the char progression to the moment the char at the given index of {@link #getText()} is processed. See
+     * {@link #seekToTime(float)}.
+     */
+    public void seekToChar(int index) {
+        seekToChar(index, false);
+    }
+
+    /**
+     * Jumps the char progression to the moment the char at the given index of {@link #getText()} is processed. See
+     * {@link #seekToTime(float, boolean)}.
+     *
+     * @param replayEvents If {@code true}, events in between are reported to the listeners.
+     */
+    public void seekToChar(int index, boolean replayEvents) {
+        seek(getRevealTime(index), index, replayEvents);
+    }
+
+    /**
+     * Returns the time since the start at which the char at the given index of {@link #getText()} is processed, assuming
+     * an uninterrupted progression without pauses or skips. Indices past the end return {@link #getRevealDuration()}.
+     * The timeline is computed once per text, from the text and its tokens, and doesn't depend on the frame rate.
+     */
+    public float getRevealTime(int index) {
+        buildRevealTimeline();
+        if(index >= revealTimes.size) return revealDuration;
+        return revealTimes.get(Math.max(0, index));
+    }
+
+    /** Returns the time since the start at which the char progression ends. See {@link #getRevealTime(int)}. */
+    public float getRevealDuration() {
+        buildRevealTimeline();
+        return revealDuration;
+    }
+
+    /**
+     * Returns the index of the last char of {@link #getText()} processed by the given time since the start, or -1 if
+     * there's none. See {@link #getRevealTime(int)}.
+     */
+    public int getCharIndexAt(float time) {
+        buildRevealTimeline();
+        int low = 0, high = revealTimes.size - 1;
+        while(low <= high) {
+            int middle = (low + high) >>> 1;
+            if(revealTimes.get(middle) <= time) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
     /** Returns whether or not this label is paused. */
     public boolean isPaused() {
         return paused;
@@ -280,12 +624,15 @@ public class TypingLabel extends Label {
 
     /** Pauses this label's character progression. */
     public void pause() {
+        settle();
         paused = true;
+        wake();
     }
 
     /** Resumes this label's character progression. */
     public void resume() {
         paused = false;
+        wake();
     }
 
     /** Returns whether or not this label's char progression has ended. */
@@ -293,12 +640,26 @@ public class TypingLabel extends Label {
         return ended;
     }
 
+    /**
+     * Returns whether or not this label is idle, which means its char progression has ended, no effects are running and
+     * it doesn't need to be laid out. Idle labels skip all per-frame work, other than drawing the vertices they already
+     * built. They wake up when restarted, when their text or layout changes, or when their color changes.
+     */
+    public boolean isIdle() {
+        return ended && parsed && !textChangedInPlace && activeEffects.size == 0 && queuedText == null
+            && queuedResult == null && !needsLayout();
+    }
+
     /**
      * Restarts this label with the original text and starts the char progression right away. All tokens are
-     * automatically parsed.
+     * automatically parsed. If the label was started from a {@link DialogueBundle}, the same line is started again.
      */
     public void restart() {
-        restart(getOriginalText());
+        if(bundle != null) {
+            restart(bundle, bundleLine);
+        } else {
+            restart(getOriginalText());
+        }
     }
 
     /**
@@ -306,6 +667,98 @@ public class TypingLabel extends Label {
      * parsed.
      */
     public void restart(CharSequence newText) {
+        // Reset state
+        resetState();
+
+        // Set new text
+        this.setText(newText, true, false);
+        invalidate();
+
+        // Parse tokens
+        tokenEntries.clear();
+        parseTokens();
+    }
+
+    /**
+     * Restarts this label with a line compiled ahead of time and starts the char progression right away. Tokens are
+     * not parsed again, only variables are replaced. Note that the line already contains the default token it was
+     * compiled with, so the label's default token is ignored.
+     *
+     * @see DialogueBundleCompiler
+     */
+    public void restart(DialogueBundle bundle, int line) {
+        // Reset state
+        resetState();
+
+        // Set text and tokens from bundle, falling back to parsing if variables contain tokens
+        if(!bundle.apply(line, this)) {
+            this.setText(bundle.getSource(line), true, false);
+            Parser.parseTokens(this, bundle.getDefaultToken());
+        }
+        this.bundle = bundle;
+        this.bundleLine = line;
+        this.parsed = true;
+        invalidate();
+    }
+
+    /**
+     * Restarts this label with a text parsed ahead of time and starts the char progression right away. Tokens are not
+     * parsed again, unless the label's state changed since the text's {@link ParseContext} was created.
+     *
+     * @see #queueText(ParsedText)
+     */
+    public void restart(ParsedText parsedText) {
+        // Reset state
+        resetState();
+
+        // Set parsed text, falling back to parsing it again if it's outdated
+        this.setText(parsedText.getSourceText(), true, false);
+        if(parsedText.apply(this)) {
+            parsed = true;
+        } else {
+            tokenEntries.clear();
+            parseTokens();
+        }
+        invalidate();
+    }
+
+    /**
+     * Queues a text parsed ahead of time to replace the current one on the next {@link #act(float)}, restarting this
+     * label. Replaces any text queued before.
+     */
+    public void queueText(ParsedText parsedText) {
+        queuedText = parsedText;
+        queuedResult = null;
+        wake();
+    }
+
+    /**
+     * Queues a text being parsed in the background to replace the current one on the first {@link #act(float)} after
+     * it's done, restarting this label. Until then, the current text remains. Replaces any text queued before.
+     *
+     * @see TextPrefetcher
+     */
+    public void queueText(AsyncResult<ParsedText> parsedText) {
+        queuedText = null;
+        queuedResult = parsedText;
+        wake();
+    }
+
+    /** Returns whether or not there's a queued text waiting to replace the current one. */
+    public boolean hasQueuedText() {
+        return queuedText != null || queuedResult != null;
+    }
+
+    /** Resets all cache collections and the progression state. */
+    private void resetState() {
+        settle();
+        stepAccumulator = 0;
+        if(seeded) random.setSeed(seed);
+        culledTime = 0;
+        effectsPending = false;
+        verticesValid = false;
+        layoutValid = false;
+
         // Reset cache collections
         GlyphUtils.freeAll(glyphCache);
         glyphCache.clear();
@@ -313,6 +766,9 @@ public class TypingLabel extends Label {
         offsetCache.clear();
         layoutLineBreaks.clear();
         activeEffects.clear();
+        for(int i = 0; i < openEffects.size; i++) {
+            openEffects.get(i).clear();
+        }
 
         // Reset state
         textSpeed = TypingConfig.DEFAULT_SPEED_PER_CHAR;
@@ -321,6 +777,13 @@ public class TypingLabel extends Label {
         glyphCharIndex = -1;
         glyphCharCompensation = 0;
         cachedGlyphCharIndex = -1;
+        layoutLineBreakIndex = 0;
+        textChangedInPlace = false;
+        allTokenEntries.clear();
+        tokenEntriesCaptured = false;
+        revealTimelineValid = false;
+        charDelaysValid = false;
+        progressionTime = 0;
         lastLayoutX = 0;
         lastLayoutY = 0;
         parsed = false;
@@ -329,14 +792,7 @@ public class TypingLabel extends Label {
         skipping = false;
         ignoringEvents = false;
         ignoringEffects = false;
-
-        // Set new text
-        this.setText(newText, true, false);
-        invalidate();
-
-        // Parse tokens
-        tokenEntries.clear();
-        parseTokens();
+        wake();
     }
 
     /** Returns an {@link ObjectMap} with all the variable names and their respective replacement values. */
@@ -370,6 +826,434 @@ public class TypingLabel extends Label {
         this.variables.clear();
     }
 
+    /**
+     * Updates the parts of the text that came from {@code VAR} and {@code IF} tokens with the current variable values,
+     * without restarting this label. Only the changed values are replaced, while the char progression, active effects
+     * and glyphs before the first change are kept. Use this after changing variables of a label that's already running.
+     * <p>
+     * If a changed value can't be replaced in place, such as when it has tokens or color markup, this label is restarted
+     * instead. Labels that had already ended are skipped to the end again.
+     *
+     * @return Whether or not all values could be replaced in place.
+     */
+    public boolean refreshVariables() {
+        if(!parsed) return true;
+
+        // Resolve all values again, making sure the changed ones can be replaced in place
+        boolean hasMarkup = getBitmapFontCache().getFont().getData().markupEnabled;
+        char open = TypingConfig.TOKEN_DELIMITER.open;
+        Array<String> values = refreshedValues;
+        values.clear();
+        boolean changed = false;
+        for(int i = 0; i < variableSpans.size; i++) {
+            VariableSpan span = variableSpans.get(i);
+            String value = span.category == TokenCategory.IF ? Parser.processIfToken(this, span.param) : Parser.getVariableValue(this, span.param);
+            if(value == null) value = span.param.toUpperCase();
+            if(value.equals(span.value)) {
+                values.add(null);
+                continue;
+            }
+
+            // Fall back to a full restart
+            if(!span.spliceable || !Parser.isPlainText(value, open, hasMarkup)) {
+                boolean hasEnded = ended;
+                restart();
+                if(hasEnded) skipToTheEnd(true, false);
+                return false;
+            }
+            values.add(value);
+            changed = true;
+        }
+        if(!changed) return true;
+
+        // Replace changed values, from first to last. Line breaks may move, so indices are kept as if each layout line
+        // break was a char until the next layout.
+        countLineBreaksAsChars();
+        for(int i = 0; i < values.size; i++) {
+            if(values.get(i) != null) spliceVariable(i, values.get(i));
+        }
+        revealTimelineValid = false;
+        charDelaysValid = false;
+        values.clear();
+        invalidateHierarchy();
+        wake();
+        return true;
+    }
+
+    /** Replaces the value of the given variable span, shifting the progression, tokens and spans after it. */
+    private void spliceVariable(int spanIndex, String value) {
+        VariableSpan span = variableSpans.get(spanIndex);
+        int start = span.start;
+        int end = span.end;
+        int delta = value.length() - span.value.length();
+        int glyphDelta = countGlyphs(value, value.length()) - countGlyphs(span.value, span.value.length());
+
+        // Move the progression along with the text
+        if(rawCharIndex >= end) {
+            rawCharIndex += delta;
+            glyphCharIndex += glyphDelta;
+            for(int i = 0; i < activeEffects.size; i++) {
+                Effect effect = activeEffects.get(i);
+                if(effect.startSequence >= span.sequence) effect.indexStart += glyphDelta;
+                if(effect.indexEnd >= 0 && effect.endSequence >= span.sequence) effect.indexEnd += glyphDelta;
+            }
+        } else if(rawCharIndex >= start) {
+            // Type the new value from its start
+            glyphCharIndex -= countGlyphs(span.value, rawCharIndex - start + 1);
+            rawCharIndex = start - 1;
+        }
+
+        // Shift tokens that come after the span, including processed ones that are still part of the timeline
+        Array<TokenEntry> entries = tokenEntriesCaptured ? allTokenEntries : tokenEntries;
+        for(int i = 0; i < entries.size; i++) {
+            TokenEntry entry = entries.get(i);
+            boolean isAfter = entry.sequence < 0 ? entry.index >= end : entry.sequence >= span.sequence;
+            if(isAfter) entry.index += delta;
+        }
+
+        // Shift spans that come after this one
+        for(int i = spanIndex + 1; i < variableSpans.size; i++) {
+            VariableSpan other = variableSpans.get(i);
+            other.start += delta;
+            other.end += delta;
+        }
+
+        // Replace text
+        getText().replace(start, end, value);
+        textLineBreaksLength = -1;
+        span.value = value;
+        span.end = start + value.length();
+    }
+
+    /** Returns the given glyph index counting the layout line breaks before it as chars. */
+    private int glyphToCharIndex(int glyphIndex) {
+        return glyphIndex + countLineBreaksBefore(glyphIndex);
+    }
+
+    /** Reverts {@link #glyphToCharIndex(int)} with the line breaks of the current layout. */
+    private int charToGlyphIndex(int charIndex) {
+        return charIndex - countLineBreaksBeforeChar(charIndex);
+    }
+
+    /** Returns how many layout line breaks come before the given glyph index. Line breaks are sorted. */
+    private int countLineBreaksBefore(int glyphIndex) {
+        int[] lineBreaks = layoutLineBreaks.items;
+        int low = 0;
+        int high = layoutLineBreaks.size;
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(lineBreaks[mid] < glyphIndex) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Returns how many layout line breaks come before the given char index, counting each of them as a char. */
+    private int countLineBreaksBeforeChar(int charIndex) {
+        int[] lineBreaks = layoutLineBreaks.items;
+        int low = 0;
+        int high = layoutLineBreaks.size;
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            if(lineBreaks[mid] + mid + 1 < charIndex) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Returns how many glyphs the first chars of the given plain text produce, which excludes line breaks. */
+    private static int countGlyphs(CharSequence text, int length) {
+        int count = 0;
+        for(int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if(c != '\n' && c != '\r') count++;
+        }
+        return count;
+    }
+
+    /**
+     * Makes indices count each layout line break as a char until the next layout, since line breaks may move along with
+     * the text. See {@link #consumeLayoutLineBreaks()}.
+     *
+     * @return The index of a line break typed after the last glyph, which counts as a char as well, or -1 if there's
+     * none. See {@link #findTrailingLineBreak()}.
+     */
+    private int countLineBreaksAsChars() {
+        if(textChangedInPlace) return -1;
+        int trailingLineBreak = findTrailingLineBreak();
+        glyphCharIndex += layoutLineBreakIndex + (trailingLineBreak >= 0 ? 1 : 0);
+        for(int i = 0; i < activeEffects.size; i++) {
+            Effect effect = activeEffects.get(i);
+            effect.indexStart = glyphToCharIndex(effect.indexStart);
+            if(effect.indexEnd >= 0) effect.indexEnd = glyphToCharIndex(effect.indexEnd);
+        }
+        textChangedInPlace = true;
+        return trailingLineBreak;
+    }
+
+    /**
+     * Returns the index of a line break that was typed after the last glyph of the layout, or -1 if there's none. Such
+     * line breaks didn't consume a layout line break, since there were no glyphs after them yet.
+     */
+    private int findTrailingLineBreak() {
+        if(layoutLineBreakIndex < layoutLineBreaks.size) return -1;
+        if(layoutLineBreakIndex > 0 && layoutLineBreaks.get(layoutLineBreakIndex - 1) == glyphCharIndex) return -1;
+
+        // Look back from the last typed char, skipping color markup tags
+        StringBuilder text = getText();
+        boolean hasMarkup = getBitmapFontCache().getFont().getData().markupEnabled;
+        for(int i = Math.min(rawCharIndex, text.length - 1); i >= 0; i--) {
+            char c = text.charAt(i);
+            if(c == '\n') return i;
+            if(c == '\r') continue;
+            if(c != ']' || !Parser.isInsideColorTag(text, i, hasMarkup)) return -1;
+            while(text.charAt(i) != '[') i--;
+        }
+        return -1;
+    }
+
+    /**
+     * Appends the given text to this label without restarting it, so the char progression carries on from where it is,
+     * even if it had already ended. Useful for texts that keep growing, such as chat or combat logs. Only the appended
+     * text is parsed, on its own, so tokens can't be split between appended texts, while effects and colors that are
+     * still active carry on. Glyphs that were already laid out are kept.
+     * <p>
+     * If a budget was set with {@link #setAppendBudget(int, int)}, lines that were already typed are dropped from the
+     * start of the text whenever it's exceeded.
+     */
+    public void append(CharSequence text) {
+        bundle = null;
+        if(!parsed) {
+            originalText.append(text);
+            getText().append(text);
+            invalidateHierarchy();
+            wake();
+            return;
+        }
+
+        // Lines can only be dropped with an up to date layout, otherwise they wait for the next append
+        boolean canTrim = (maxLines >= 0 || maxGlyphs >= 0) && !textChangedInPlace && !needsLayout();
+        int trailingLineBreak = countLineBreaksAsChars();
+        if(canTrim) trimHead(trailingLineBreak);
+        originalText.append(text);
+
+        // Parse the new text on its own and move its tokens after the current text
+        StringBuilder labelText = getText();
+        int offset = labelText.length;
+        int sequenceOffset = getNextSequence();
+        int firstSpan = variableSpans.size;
+        Array<TokenEntry> entries = appendedEntries;
+        String fragment = Parser.parseFragment(this, text, entries, variableSpans);
+        for(int i = 0; i < entries.size; i++) {
+            TokenEntry entry = entries.get(i);
+            entry.index += offset;
+            if(entry.sequence >= 0) entry.sequence += sequenceOffset;
+        }
+        for(int i = firstSpan; i < variableSpans.size; i++) {
+            VariableSpan span = variableSpans.get(i);
+            span.start += offset;
+            span.end += offset;
+            span.sequence += sequenceOffset;
+        }
+
+        // Pending entries are processed before the new ones, which go to the start of the reversed array
+        entries.sort();
+        if(tokenEntriesCaptured) allTokenEntries.addAll(entries);
+        entries.reverse();
+        entries.addAll(tokenEntries);
+        tokenEntries.clear();
+        tokenEntries.addAll(entries);
+        entries.clear();
+
+        // Continue typing from the end of the current text, which no longer matches the reveal timeline
+        if(ended) {
+            ended = false;
+            rawCharIndex = offset - 1;
+            progressionTime = Float.POSITIVE_INFINITY;
+        }
+        labelText.append(fragment);
+        if(textLineBreaksLength == offset) {
+            textLineBreaks += countLineBreaks(fragment, 0, fragment.length());
+            textLineBreaksLength = labelText.length;
+        }
+        revealTimelineValid = false;
+        charDelaysValid = false;
+        invalidateHierarchy();
+        wake();
+    }
+
+    /**
+     * Sets how much text this label keeps as texts are appended with {@link #append(CharSequence)}. Once either budget
+     * is exceeded, lines that were already typed are dropped from the start of the text and their glyphs are freed.
+     * The glyph budget is measured against the glyphs of the last layout. After lines are dropped, the original text
+     * only holds the remaining text, without its tokens.
+     *
+     * @param maxLines  Maximum amount of lines, split by line breaks in the text. Negative values mean no limit.
+     * @param maxGlyphs Maximum amount of glyphs. Negative values mean no limit.
+     */
+    public void setAppendBudget(int maxLines, int maxGlyphs) {
+        this.maxLines = maxLines;
+        this.maxGlyphs = maxGlyphs;
+    }
+
+    /** Returns a sequence greater than the ones of all pending entries, variable spans and active effects. */
+    private int getNextSequence() {
+        int sequence = -1;
+        for(int i = 0; i < tokenEntries.size; i++) {
+            sequence = Math.max(sequence, tokenEntries.get(i).sequence);
+        }
+        for(int i = 0; i < variableSpans.size; i++) {
+            sequence = Math.max(sequence, variableSpans.get(i).sequence);
+        }
+        for(int i = 0; i < activeEffects.size; i++) {
+            Effect effect = activeEffects.get(i);
+            sequence = Math.max(sequence, Math.max(effect.startSequence, effect.endSequence));
+        }
+        return sequence + 1;
+    }
+
+    /**
+     * Drops typed lines from the start of the text until it fits the append budget, or until there are no more typed
+     * lines. Must be called with an up to date layout, right after {@link #countLineBreaksAsChars()}.
+     *
+     * @param trailingLineBreak Index of the line break typed after the last glyph, or -1 if there's none.
+     */
+    private void trimHead(int trailingLineBreak) {
+        StringBuilder text = getText();
+
+        // Find how much is over budget
+        int excessLines = maxLines >= 0 ? getTextLineBreaks() + 1 - maxLines : 0;
+        int excessGlyphs = maxGlyphs >= 0 ? glyphCache.size - maxGlyphs : 0;
+        if(excessLines <= 0 && excessGlyphs <= 0) return;
+
+        // Cut right after a typed line break, estimating glyphs by chars
+        int cut = 0;
+        for(int i = 0, lines = 0, glyphs = 0; i <= rawCharIndex && i < text.length; i++) {
+            char c = text.charAt(i);
+            if(c == '\n') {
+                cut = i + 1;
+                if(++lines >= excessLines && glyphs >= excessGlyphs) break;
+            } else if(c != '\r') {
+                glyphs++;
+            }
+        }
+        if(cut == 0) return;
+
+        // Drop empty lines right after the cut as well, otherwise they would be the start of the next layout
+        while(cut <= rawCharIndex && cut < text.length && (text.charAt(cut) == '\n' || text.charAt(cut) == '\r')) {
+            cut++;
+        }
+
+        // Measure the dropped lines, which keeps the layout line breaks between them, but not a leading one
+        int droppedGlyphs = countLaidOutGlyphs(text, cut);
+        int droppedChars = droppedGlyphs + countLineBreaksBefore(droppedGlyphs) - countLineBreaksBefore(0);
+        if(trailingLineBreak >= 0 && trailingLineBreak < cut) droppedChars++;
+
+        // Replace the dropped lines with the color markup tags they left open
+        boolean hasMarkup = getBitmapFontCache().getFont().getData().markupEnabled;
+        String openTags = hasMarkup ? Parser.getOpenColorTags(text, cut) : "";
+        int delta = openTags.length() - cut;
+        if(textLineBreaksLength == text.length) {
+            textLineBreaks -= countLineBreaks(text, 0, cut);
+            textLineBreaksLength = text.length + delta;
+        }
+        text.replace(0, cut, openTags);
+        originalText.setLength(0);
+        originalText.append(text);
+
+        // Move the progression and the remaining tokens, forgetting the processed ones before the cut
+        rawCharIndex += delta;
+        glyphCharIndex -= droppedChars;
+        progressionTime = Float.POSITIVE_INFINITY;
+        revealTimelineValid = false;
+        charDelaysValid = false;
+        captureTokenEntries();
+        int droppedEntries = 0;
+        while(droppedEntries < allTokenEntries.size && allTokenEntries.get(droppedEntries).index < cut) {
+            droppedEntries++;
+        }
+        if(droppedEntries > 0) allTokenEntries.removeRange(0, droppedEntries - 1);
+        for(int i = 0; i < allTokenEntries.size; i++) {
+            allTokenEntries.get(i).index += delta;
+        }
+        for(int i = variableSpans.size - 1; i >= 0; i--) {
+            VariableSpan span = variableSpans.get(i);
+            if(span.start < cut) {
+                variableSpans.removeIndex(i);
+                continue;
+            }
+            span.start += delta;
+            span.end += delta;
+        }
+        for(int i = activeEffects.size - 1; i >= 0; i--) {
+            Effect effect = activeEffects.get(i);
+            if(effect.indexEnd >= 0 && effect.indexEnd < droppedChars) {
+                activeEffects.removeIndex(i);
+                continue;
+            }
+            effect.indexStart -= droppedChars;
+            if(effect.indexEnd >= 0) effect.indexEnd -= droppedChars;
+        }
+
+        // Recycle dropped glyphs, so the remaining ones line up with the next layout
+        droppedGlyphs = Math.min(droppedGlyphs, glyphCache.size);
+        if(droppedGlyphs > 0) {
+            for(int i = 0; i < droppedGlyphs; i++) {
+                TypingGlyph glyph = glyphCache.get(i);
+                if(glyph != null) GlyphUtils.free(glyph);
+            }
+            glyphCache.removeRange(0, droppedGlyphs - 1);
+            offsetCache.removeRange(0, droppedGlyphs * 2 - 1);
+        }
+    }
+
+    /**
+     * Returns how many line breaks the text has. They're only counted again if the text changed other than by
+     * {@link #append(CharSequence)} or dropped lines, so appending and trimming only go through the affected chars.
+     */
+    private int getTextLineBreaks() {
+        StringBuilder text = getText();
+        if(textLineBreaksLength != text.length) {
+            textLineBreaks = countLineBreaks(text, 0, text.length);
+            textLineBreaksLength = text.length;
+        }
+        return textLineBreaks;
+    }
+
+    /** Returns how many line breaks there are between the given indices of the given text. */
+    private static int countLineBreaks(CharSequence text, int start, int end) {
+        int count = 0;
+        for(int i = start; i < end; i++) {
+            if(text.charAt(i) == '\n') count++;
+        }
+        return count;
+    }
+
+    /** Returns how many glyphs the first chars of the given text produce with the settings of the last layout. */
+    private int countLaidOutGlyphs(CharSequence text, int end) {
+        BitmapFont font = getBitmapFontCache().getFont();
+        float oldScaleX = font.getScaleX();
+        float oldScaleY = font.getScaleY();
+        if(fontScaleChanged) font.getData().setScale(getFontScaleX(), getFontScaleY());
+
+        GlyphLayout layout = Pools.obtain(GlyphLayout.class);
+        layout.setText(font, text, 0, end, Color.WHITE, lastTextWidth, getLineAlign(), wrap && ellipsis == null, ellipsis);
+        int count = 0;
+        for(int i = 0; i < layout.runs.size; i++) {
+            count += layout.runs.get(i).glyphs.size;
+        }
+        Pools.free(layout);
+
+        if(fontScaleChanged) font.getData().setScale(oldScaleX, oldScaleY);
+        return count;
+    }
+
     //////////////////////////////////
     /// --- Core Functionality --- ///
     //////////////////////////////////
@@ -378,20 +1262,99 @@ public class TypingLabel extends Label {
     public void act(float delta) {
         super.act(delta);
 
+        // Labels registered to a scheduler are ticked by it instead
+        if(schedulerEntry == null) {
+            advance(delta, delta);
+        }
+    }
+
+    /** Ticks this label with the given time, in fixed steps if set. */
+    void advance(float delta, float effectDelta) {
+        // Labels that weren't drawn since the last call aren't visible
+        culled = culling && !drawnSinceAct;
+        drawnSinceAct = false;
+
+        if(fixedStep <= 0) {
+            tick(delta, effectDelta);
+            return;
+        }
+
+        // Steps are consumed whole, so the leftover time carries over to the next call. Glyphs are laid out before
+        // each step, so effects reach the same glyphs regardless of when this label is drawn.
+        stepAccumulator += delta;
+        while(stepAccumulator >= fixedStep) {
+            stepAccumulator -= fixedStep;
+            validate();
+            tick(fixedStep, fixedStep);
+        }
+    }
+
+    /**
+     * Processes the char progression and effects of this label. Effects may advance less than the progression, since
+     * the ones started while catching up on a long wait have only been running since the last frame.
+     */
+    void tick(float delta, float effectDelta) {
+        // Swap in queued texts once they're parsed
+        if(queuedResult != null && queuedResult.isDone()) {
+            queuedText = queuedResult.get();
+            queuedResult = null;
+        }
+        if(queuedText != null) {
+            ParsedText parsedText = queuedText;
+            queuedText = null;
+            restart(parsedText);
+        }
+
+        // Nothing changes while idle
+        if(isIdle()) return;
+
         // Force token parsing
         if(!parsed) {
             parseTokens();
         }
 
+        // Lay out text changed in place before progressing
+        if(textChangedInPlace) {
+            validate();
+        }
+
         // Update cooldown and process char progression
-        if(skipping || (!ended && !paused)) {
+        if(skipping || (!ended && !paused && (typingWhileCulled || !culled))) {
+            progressionTime = skipping ? Float.POSITIVE_INFINITY : progressionTime + delta;
             if(skipping || (charCooldown -= delta) < 0.0f) {
                 processCharProgression();
             }
         }
 
+        // Update effects, removing the finished ones
+        boolean hadEffects = activeEffects.size > 0;
+        if(!ignoringEffects) {
+            for(int i = activeEffects.size - 1; i >= 0; i--) {
+                Effect effect = activeEffects.get(i);
+                effect.update(effectDelta);
+                if(effect.isFinished()) removeFinishedEffect(i);
+            }
+        }
+
+        // Effects keep their time while culled, but are only applied once visible again
+        if(culled) {
+            if(hadEffects) {
+                culledTime += effectDelta;
+                effectsPending = true;
+            }
+            return;
+        }
+        applyEffects(effectDelta, hadEffects || effectsPending);
+    }
+
+    /** Applies all active effects to the glyphs, along with the time they weren't applied for while culled. */
+    private void applyEffects(float delta, boolean restoreOffsets) {
+        delta += culledTime;
+        culledTime = 0;
+        effectsPending = false;
+
         // Restore glyph offsets
-        if(activeEffects.size > 0) {
+        if(restoreOffsets) {
             for(int i = 0; i < glyphCache.size; i++) {
                 TypingGlyph glyph = glyphCache.get(i);
                 glyph.xoffset = offsetCache.get(i * 2);
@@ -403,32 +1366,81 @@ public class TypingLabel extends Label {
         if(!ignoringEffects) {
             for(int i = activeEffects.size - 1; i >= 0; i--) {
                 Effect effect = activeEffects.get(i);
-                effect.update(delta);
                 int start = effect.indexStart;
                 int end = effect.indexEnd >= 0 ? effect.indexEnd : glyphCharIndex;
-
-                // If effect is finished, remove it
-                if(effect.isFinished()) {
-                    activeEffects.removeIndex(i);
-                    continue;
-                }
-
-                // Apply effect to glyph
-                for(int j = Math.max(0, start); j <= glyphCharIndex && j <= end && j < glyphCache.size; j++) {
+                start = Math.max(0, start);
+                end = Math.min(end, Math.min(glyphCharIndex, glyphCache.size - 1));
+                for(int j = start; j <= end; j++) {
                     TypingGlyph glyph = glyphCache.get(j);
                     effect.apply(glyph, j, delta);
                 }
+
+                // Keep track of the glyphs that may need their vertices rewritten
+                if(start <= end) {
+                    effectRangeStart = Math.min(effectRangeStart, start);
+                    effectRangeEnd = Math.max(effectRangeEnd, end);
+                }
             }
         }
     }
 
+    /** Removes the active effect at the given index, along with its open entry if it was never ended. */
+    private void removeFinishedEffect(int index) {
+        Effect effect = activeEffects.removeIndex(index);
+        if(effect.indexEnd < 0 && effect.effectId >= 0) openEffects.get(effect.effectId).removeValue(effect, true);
+    }
+
+    /**
+     * Returns how long this label can go without being ticked, which is until its next char is due. Returns 0 if it
+     * must be ticked every frame, and infinity if it has nothing to do until it changes.
+     */
+    float getSleepTime() {
+        if(activeEffects.size > 0 || !parsed || textChangedInPlace || skipping || hasQueuedText()) return 0;
+        if(ended || paused) return Float.POSITIVE_INFINITY;
+        return Math.max(charCooldown - stepAccumulator, 0);
+    }
+
+    /** Returns the index of the last char processed, including color codes. */
+    int getRawCharIndex() {
+        return rawCharIndex;
+    }
+
+    /**
+     * Catches up on the time this label spent waiting for its next char in a scheduler, before something that depends
+     * on the time passed so far.
+     */
+    private void settle() {
+        if(schedulerEntry != null) schedulerEntry.scheduler.settle(schedulerEntry);
+    }
+
+    /** Lets the scheduler know this label may have something to do again. */
+    private void wake() {
+        if(schedulerEntry != null) schedulerEntry.scheduler.wake(schedulerEntry);
+    }
+
     /** Proccess char progression according to current cooldown and process all tokens in the current index. */
     private void processCharProgression() {
+        // Keep track of all entries before they're consumed
+        captureTokenEntries();
+        updateCharDelays();
+
+        // Keep track of the chars revealed in this call
+        int revealStart = Math.max(rawCharIndex + 1, 0);
+
+        // Skips don't need to step through time
+        if(skipping) {
+            completeCharProgression(revealStart);
+            return;
+        }
+
         // Keep a counter of how many chars we're processing in this tick.
         int charCounter = 0;
 
-        // Process chars while there's room for it
-        while(skipping || charCooldown < 0.0f) {
+        // Process chars while there's room for it. Seeks also process chars due right at the target time.
+        while(skipping || charCooldown < 0.0f || (seeking && (charCooldown <= 0.0f || rawCharIndex < seekCharIndex))) {
+            // Time since this iteration was due, which is only known when seeking
+            float iterationCooldown = charCooldown;
+
             // Apply compensation to glyph index, if any
             if(glyphCharCompensation != 0) {
                 if(glyphCharCompensation > 0) {
@@ -452,13 +1464,13 @@ public class TypingLabel extends Label {
             char primitiveChar = '\u0000'; // Null character by default
             if(getText().length > 0) {
                 primitiveChar = getText().charAt(safeIndex);
-                float intervalMultiplier = TypingConfig.INTERVAL_MULTIPLIERS_BY_CHAR.get(primitiveChar, 1);
-                charCooldown += textSpeed * intervalMultiplier;
+                charCooldown += textSpeed * charDelays.items[safeIndex];
             }
 
             // If char progression is finished, or if text is empty, notify listener and abort routine
             int textLen = getText().length;
             if(textLen == 0 || rawCharIndex >= textLen) {
+                notifyRevealedChars(revealStart);
                 if(!ended) {
                     ended = true;
                     skipping = false;
@@ -471,8 +1483,8 @@ public class TypingLabel extends Label {
 
             // Detect layout line breaks
             boolean isLayoutLineBreak = false;
-            if(layoutLineBreaks.contains(glyphCharIndex)) {
-                layoutLineBreaks.removeValue(glyphCharIndex);
+            if(layoutLineBreakIndex < layoutLineBreaks.size && layoutLineBreaks.get(layoutLineBreakIndex) == glyphCharIndex) {
+                layoutLineBreakIndex++;
                 isLayoutLineBreak = true;
             }
 
@@ -482,7 +1494,6 @@ public class TypingLabel extends Label {
             // Process tokens according to the current index
             while(tokenEntries.size > 0 && tokenEntries.peek().index == rawCharIndex) {
                 TokenEntry entry = tokenEntries.pop();
-                String token = entry.token;
                 TokenCategory category = entry.category;
 
                 // Process tokens
@@ -513,34 +1524,22 @@ public class TypingLabel extends Label {
                     }
                     case EFFECT_START:
                     case EFFECT_END: {
-                        // Get effect class
-                        boolean isStart = category == TokenCategory.EFFECT_START;
-                        Class<? extends Effect> effectClass = isStart ? TypingConfig.EFFECT_START_TOKENS.get(token) : TypingConfig.EFFECT_END_TOKENS.get(token);
-
-                        // End all effects of the same type
-                        for(int i = 0; i < activeEffects.size; i++) {
-                            Effect effect = activeEffects.get(i);
-                            if(effect.indexEnd < 0) {
-                                if(ClassReflection.isAssignableFrom(effectClass, effect.getClass())) {
-                                    effect.indexEnd = glyphCharIndex - 1;
-                                }
-                            }
-                        }
-
-                        // Create new effect if necessary
-                        if(isStart) {
-                            entry.effect.indexStart = glyphCharIndex;
-                            activeEffects.add(entry.effect);
-                        }
-
+                        processEffectToken(entry);
+                        if(seeking && category == TokenCategory.EFFECT_START && entry.effect != null) entry.effect.update(-iterationCooldown);
                     }
                 }
             }
 
-            // Notify listener about char progression
-            int nextIndex = MathUtils.clamp(rawCharIndex, 0, getText().length - 1);
-            Character nextChar = nextIndex == 0 ? null : getText().charAt(nextIndex);
-            if(nextChar != null) {
+            // Notify listeners about char progression
+            int nextIndex = MathUtils.clamp(rawCharIndex, 0, textLen - 1);
+            if(perCharListeners.size > 0 && rawCharIndex >= 0) {
+                char c = getText().charAt(nextIndex);
+                for(int i = 0; i < perCharListeners.size; i++) {
+                    perCharListeners.get(i).onChar(c, glyphCharIndex);
+                }
+            }
+            if(listeners.size > 0 && nextIndex != 0) {
+                Character nextChar = getText().charAt(nextIndex);
                 for(TypingListener listener : listeners) {
                     listener.onChar(nextChar);
                 }
@@ -549,8 +1548,12 @@ public class TypingLabel extends Label {
             // Increment char counter
             charCounter++;
 
-            // Break loop if this was our first glyph to prevent glyph issues.
+            // Break loop if this was our first glyph to prevent glyph issues. Seeks carry on from the time it was due.
             if(glyphCharIndex == -1) {
+                if(seeking) {
+                    charCooldown = iterationCooldown + textSpeed;
+                    continue;
+                }
                 charCooldown = textSpeed;
                 break;
             }
@@ -558,17 +1561,253 @@ public class TypingLabel extends Label {
             // Break loop if enough chars were processed
             charCounter++;
             int charLimit = TypingConfig.CHAR_LIMIT_PER_FRAME;
-            if(!skipping && charLimit > 0 && charCounter > charLimit) {
+            if(!skipping && !seeking && charLimit > 0 && charCounter > charLimit) {
                 charCooldown = Math.max(charCooldown, textSpeed);
                 break;
             }
         }
+        notifyRevealedChars(revealStart);
+    }
+
+    /** Notifies the {@link CharListener}s about the chars revealed from the given index up to the current one, if any. */
+    private void notifyRevealedChars(int start) {
+        if(charListeners.size == 0) return;
+        StringBuilder text = getText();
+        int end = Math.min(rawCharIndex + 1, text.length);
+        if(start >= end) return;
+        for(int i = 0; i < charListeners.size; i++) {
+            charListeners.get(i).onChars(text, start, end);
+        }
+    }
+
+    /** Ends or starts the effect of the given token at the current glyph index. */
+    private void processEffectToken(TokenEntry entry) {
+        // End all open effects of the same type, including subclasses
+        int[] closedIds = entry.closedEffectIds;
+        if(closedIds != null) {
+            for(int closedId : closedIds) {
+                if(closedId >= openEffects.size) continue;
+                Array<Effect> open = openEffects.get(closedId);
+                for(int i = 0; i < open.size; i++) {
+                    Effect effect = open.get(i);
+                    effect.indexEnd = glyphCharIndex - 1;
+                    effect.endSequence = entry.sequence;
+                }
+
+                // Effects ended before the first glyph still count as open
+                if(glyphCharIndex > 0) open.clear();
+            }
+        }
+
+        // Create new effect if necessary
+        if(entry.category == TokenCategory.EFFECT_START && entry.effect != null) {
+            Effect effect = entry.effect;
+            effect.indexStart = glyphCharIndex;
+            effect.startSequence = entry.sequence;
+            effect.effectId = entry.effectId;
+            activeEffects.add(effect);
+            if(entry.effectId >= 0) {
+                while(openEffects.size <= entry.effectId) openEffects.add(new Array<Effect>());
+                openEffects.get(entry.effectId).add(effect);
+            }
+        }
+    }
+
+    /**
+     * Jumps the char progression straight to the end, resolving the remaining tokens in a single pass. Reaches the same
+     * indices and effect ranges as {@link #processCharProgression()} would, without cooldowns or
+     * {@link TypingListener#onChar(Character)} calls. Skipped events are delivered all at once, unless ignored, and so
+     * are the revealed chars since the given index.
+     */
+    private void completeCharProgression(int revealStart) {
+        StringBuilder text = getText();
+        int textLen = text.length;
+        IntArray lineBreaks = layoutLineBreaks;
+        Array<TokenEntry> entries = tokenEntries;
+        Array<String> events = skippedEvents;
+        events.clear();
+
+        // Glyph compensations are only applied in between chars, so nothing's left to wait for
+        glyphCharIndex += glyphCharCompensation;
+        glyphCharCompensation = 0;
+
+        // Line breaks must be known before the first glyph, which may not have been laid out yet
+        if(glyphCharIndex == -1) validate();
+
+        while(true) {
+            // Stop once the text is over, or right away if it's empty
+            rawCharIndex++;
+            if(textLen == 0 || rawCharIndex >= textLen) break;
+
+            // Detect layout line breaks and increase glyph char index for all characters, except new lines
+            if(layoutLineBreakIndex < lineBreaks.size && lineBreaks.get(layoutLineBreakIndex) == glyphCharIndex) {
+                layoutLineBreakIndex++;
+            } else if(rawCharIndex >= 0) {
+                char c = text.charAt(rawCharIndex);
+                if(c != '\n' && c != '\r') glyphCharIndex++;
+            }
+
+            // Process tokens according to the current index
+            while(entries.size > 0 && entries.peek().index == rawCharIndex) {
+                TokenEntry entry = entries.pop();
+                switch(entry.category) {
+                    case SPEED:
+                        textSpeed = entry.floatValue;
+                        break;
+                    case WAIT:
+                        // Waits don't delay anything, but their compensation still applies to the next char
+                        glyphCharIndex--;
+                        glyphCharCompensation++;
+                        break;
+                    case SKIP:
+                        if(entry.stringValue != null) rawCharIndex += entry.stringValue.length();
+                        break;
+                    case EVENT:
+                        if(!ignoringEvents) events.add(entry.stringValue);
+                        break;
+                    case EFFECT_START:
+                    case EFFECT_END:
+                        processEffectToken(entry);
+                        break;
+                }
+            }
+
+            glyphCharIndex += glyphCharCompensation;
+            glyphCharCompensation = 0;
+        }
+
+        // Notify listeners
+        notifyRevealedChars(revealStart);
+        if(!ended) {
+            ended = true;
+            skipping = false;
+            if(events.size > 0) {
+                for(TypingListener listener : listeners) {
+                    if(listener instanceof SkipListener) {
+                        ((SkipListener) listener).eventsSkipped(events);
+                    } else {
+                        for(int i = 0; i < events.size; i++) {
+                            listener.event(events.get(i));
+                        }
+                    }
+                }
+                events.clear();
+            }
+            for(TypingListener listener : listeners) {
+                listener.end();
+            }
+        }
+    }
+
+    /**
+     * Fills the interval multiplier of each char of the text from this label's {@link CharIntervals}, or from the global
+     * ones. Only done once per text, unless the label's intervals change.
+     */
+    private void updateCharDelays() {
+        if(charDelaysValid && (charIntervals == null || charIntervals.version == charDelaysVersion)) return;
+        CharIntervals intervals = charIntervals != null ? charIntervals : TypingConfig.getCharIntervals();
+        StringBuilder text = getText();
+        float[] delays = charDelays.setSize(text.length);
+        char[] chars = text.chars;
+        for(int i = 0, n = text.length; i < n; i++) {
+            delays[i] = intervals.get(chars[i]);
+        }
+        charDelaysVersion = intervals.version;
+        charDelaysValid = true;
+        revealTimelineValid = false;
+    }
+
+    /** Keeps all token entries in text order before the char progression starts consuming them. */
+    private void captureTokenEntries() {
+        if(tokenEntriesCaptured) return;
+        allTokenEntries.clear();
+        for(int i = tokenEntries.size - 1; i >= 0; i--) {
+            allTokenEntries.add(tokenEntries.get(i));
+        }
+        tokenEntriesCaptured = true;
+    }
+
+    /**
+     * Simulates the char progression from the start, storing the time each char is processed at. Mirrors
+     * {@link #processCharProgression()} as if time was continuous, so {@link TypingConfig#CHAR_LIMIT_PER_FRAME} is
+     * ignored. Only done once per text.
+     */
+    private void buildRevealTimeline() {
+        if(!parsed) parseTokens();
+        updateCharDelays();
+        if(revealTimelineValid) return;
+        captureTokenEntries();
+
+        StringBuilder text = getText();
+        int length = text.length;
+        FloatArray times = revealTimes;
+        times.setSize(length);
+        float speed = TypingConfig.DEFAULT_SPEED_PER_CHAR;
+        float clock = speed;
+        int rawIndex = -2;
+        int glyphIndex = -1;
+        int compensation = 0;
+        int entryIndex = 0;
+        while(true) {
+            // Each iteration is due when the clock is reached
+            float time = clock;
+            if(compensation != 0) {
+                glyphIndex += compensation > 0 ? 1 : -1;
+                compensation += compensation > 0 ? -1 : 1;
+                clock += speed;
+                continue;
+            }
+
+            // Process next char, until the end
+            rawIndex++;
+            char c = '\u0000';
+            if(length > 0) {
+                int safeIndex = MathUtils.clamp(rawIndex, 0, length - 1);
+                c = text.charAt(safeIndex);
+                clock += speed * charDelays.items[safeIndex];
+            }
+            if(length == 0 || rawIndex >= length) {
+                revealDuration = time;
+                break;
+            }
+            if(rawIndex >= 0) times.set(rawIndex, time);
+            if(rawIndex >= 0 && c != '\n' && c != '\r') glyphIndex++;
+
+            // Process tokens that affect timing
+            while(entryIndex < allTokenEntries.size && allTokenEntries.get(entryIndex).index == rawIndex) {
+                TokenEntry entry = allTokenEntries.get(entryIndex++);
+                switch(entry.category) {
+                    case SPEED:
+                        speed = entry.floatValue;
+                        break;
+                    case WAIT:
+                        glyphIndex--;
+                        compensation++;
+                        clock += entry.floatValue;
+                        break;
+                    case SKIP:
+                        if(entry.stringValue != null) {
+                            for(int i = 1; i <= entry.stringValue.length() && rawIndex + i < length; i++) {
+                                times.set(rawIndex + i, time);
+                            }
+                            rawIndex += entry.stringValue.length();
+                        }
+                        break;
+                }
+            }
+
+            // The first glyph is due one char after it was processed
+            if(glyphIndex == -1) clock = time + speed;
+        }
+        revealTimelineValid = true;
     }
 
     @Override
     public boolean remove() {
         GlyphUtils.freeAll(glyphCache);
         glyphCache.clear();
+        layoutValid = false;
+        verticesValid = false;
         return super.remove();
     }
 
@@ -631,6 +1870,9 @@ public class TypingLabel extends Label {
 
     @Override
     public void layout() {
+        // Nothing to do if the glyphs would be laid out the same way
+        if(isLayoutCurrent()) return;
+
         // --- SUPERCLASS IMPLEMENTATION ---
         BitmapFontCache cache = getBitmapFontCache();
         StringBuilder text = getText();
@@ -663,12 +1905,21 @@ public class TypingLabel extends Label {
             height -= background.getBottomHeight() + background.getTopHeight();
         }
 
+        // Copy glyph positions from another label with the same text and settings, if possible
+        LayoutCache sharedLayouts = TypingConfig.LAYOUT_CACHE;
+        LayoutCache.Entry cachedLayout = sharedLayouts == null ? null : sharedLayouts.restore(layout, font, text, width, lineAlign, wrap, ellipsis);
+
         float textWidth, textHeight;
         if(wrap || text.indexOf("\n") != -1) {
             // If the text can span multiple lines, determine the text's actual size so it can be aligned within the label.
-            layout.setText(font, text, 0, text.length, Color.WHITE, width, lineAlign, wrap, ellipsis);
-            textWidth = layout.width;
-            textHeight = layout.height;
+            if(cachedLayout != null) {
+                textWidth = cachedLayout.textWidth;
+                textHeight = cachedLayout.textHeight;
+            } else {
+                layout.setText(font, text, 0, text.length, Color.WHITE, width, lineAlign, wrap, ellipsis);
+                textWidth = layout.width;
+                textHeight = layout.height;
+            }
 
             if((labelAlign & Align.left) == 0) {
                 if((labelAlign & Align.right) != 0)
@@ -692,8 +1943,11 @@ public class TypingLabel extends Label {
         }
         if(!cache.getFont().isFlipped()) y += textHeight;
 
-        layout.setText(font, text, 0, text.length, Color.WHITE, textWidth, lineAlign, wrap, ellipsis);
-        cache.setText(layout, x, y);
+        if(cachedLayout == null) {
+            layout.setText(font, text, 0, text.length, Color.WHITE, textWidth, lineAlign, wrap, ellipsis);
+            if(sharedLayouts != null) sharedLayouts.store(layout, font, text, width, lineAlign, wrap, ellipsis, textWidth, textHeight);
+        }
+        // Font cache is filled on the next draw, once glyphs are replaced
 
         if(fontScaleChanged) font.getData().setScale(oldScaleX, oldScaleY);
 
@@ -702,16 +1956,44 @@ public class TypingLabel extends Label {
         // Store coordinates passed to BitmapFontCache
         lastLayoutX = x;
         lastLayoutY = y;
+        lastTextWidth = textWidth;
 
         // Perform cache layout operation, where the magic happens
-        GlyphUtils.freeAll(glyphCache);
-        glyphCache.clear();
         layoutCache();
+
+        // Store state this layout depends on
+        layoutValid = true;
+        layoutText.setLength(0);
+        layoutText.append(text);
+        layoutWidth = getWidth();
+        layoutHeight = getHeight();
+        layoutLabelAlign = labelAlign;
+        layoutLineAlign = lineAlign;
+        layoutFontScaleX = getFontScaleX();
+        layoutFontScaleY = getFontScaleY();
+        layoutWrap = this.wrap;
+        layoutEllipsis = ellipsis;
+        layoutMarkup = font.getData().markupEnabled;
+        layoutFont = font;
+        layoutBackground = background;
+    }
+
+    /** Returns whether or not the text, size, alignment, font and style are the same as in the last layout. */
+    private boolean isLayoutCurrent() {
+        if(!layoutValid || textChangedInPlace) return false;
+        BitmapFont font = getBitmapFontCache().getFont();
+        return getWidth() == layoutWidth && getHeight() == layoutHeight
+            && getLabelAlign() == layoutLabelAlign && getLineAlign() == layoutLineAlign
+            && getFontScaleX() == layoutFontScaleX && getFontScaleY() == layoutFontScaleY
+            && wrap == layoutWrap && ellipsis == layoutEllipsis
+            && font == layoutFont && font.getData().markupEnabled == layoutMarkup
+            && getStyle().background == layoutBackground
+            && getText().equals(layoutText);
     }
 
     /**
      * Reallocate glyph clones according to the updated {@link GlyphLayout}. This should only be called when the text or
-     * the layout changes.
+     * the layout changes. After the text changed in place, glyphs before the first changed one are kept.
      */
     private void layoutCache() {
         BitmapFontCache cache = getBitmapFontCache();
@@ -719,7 +2001,8 @@ public class TypingLabel extends Label {
         Array<GlyphRun> runs = layout.runs;
         IntArray colors = layout.colors;
 
-        // Reset layout line breaks
+        // Reset layout line breaks, remembering whether the progression already passed the one at its current glyph
+        boolean passedCurrentBreak = layoutLineBreakIndex > 0 && layoutLineBreaks.get(layoutLineBreakIndex - 1) == glyphCharIndex;
         layoutLineBreaks.clear();
 
         // Store GlyphRun sizes and count how many glyphs we have
@@ -738,6 +2021,8 @@ public class TypingLabel extends Label {
         }
 
         // Clone original glyphs with independent instances
+        boolean keepGlyphs = textChangedInPlace;
+        boolean sameFont = cache.getFont() == layoutFont;
         int index = -1;
         float lastY = 0;
 
@@ -748,14 +2033,14 @@ public class TypingLabel extends Label {
         for(int i = 0; i < runs.size; i++) {
             GlyphRun run = runs.get(i);
             Array<Glyph> glyphs = run.glyphs;
-            for(int j = 0; j < glyphs.size; j++) {
 
-                // Detect and store layout line breaks
-                if(!MathUtils.isEqual(run.y, lastY)) {
-                    lastY = run.y;
-                    layoutLineBreaks.add(index);
-                }
+            // Detect and store layout line breaks, which can only happen at the start of a run
+            if(glyphs.size > 0 && !MathUtils.isEqual(run.y, lastY)) {
+                lastY = run.y;
+                layoutLineBreaks.add(index);
+            }
 
+            for(int j = 0; j < glyphs.size; j++) {
                 // Increment index
                 index++;
                 if(index >= colorChange && colorIndex + 2 < colors.size)
@@ -772,11 +2057,25 @@ public class TypingLabel extends Label {
                 if(index < glyphCache.size) {
                     clone = glyphCache.get(index);
                 }
+
+                // Keep glyphs until the first one that changed, along with the state effects left in them
+                if(keepGlyphs && clone != null && clone.id == original.id) {
+                    clone.runColor = currentColor;
+                    glyphs.set(j, clone);
+                    continue;
+                }
+                keepGlyphs = false;
+
+                // Glyphs of the previous layout are reused, and only need their layout fields updated if they match
                 if(clone == null) {
                     clone = GlyphUtils.obtain();
                     glyphCache.set(index, clone);
+                    GlyphUtils.clone(original, clone);
+                } else if(sameFont && clone.id == original.id) {
+                    GlyphUtils.relayout(original, clone);
+                } else {
+                    GlyphUtils.clone(original, clone);
                 }
-                GlyphUtils.clone(original, clone);
                 clone.width *= getFontScaleX();
                 clone.height *= getFontScaleY();
                 clone.xoffset *= getFontScaleX();
@@ -792,6 +2091,28 @@ public class TypingLabel extends Label {
             }
         }
 
+        // Find which line breaks the progression already consumed
+        if(textChangedInPlace) {
+            textChangedInPlace = false;
+            consumeLayoutLineBreaks();
+        } else {
+            int passed = countLineBreaksBefore(glyphCharIndex);
+            if(passedCurrentBreak && passed < layoutLineBreaks.size && layoutLineBreaks.get(passed) == glyphCharIndex) {
+                passed++;
+            }
+            layoutLineBreakIndex = passed;
+        }
+
+        // Release glyphs that are no longer part of the text
+        if(glyphCache.size > glyphCount) {
+            for(int i = glyphCount; i < glyphCache.size; i++) {
+                TypingGlyph glyph = glyphCache.get(i);
+                if(glyph != null) GlyphUtils.free(glyph);
+            }
+            glyphCache.truncate(glyphCount);
+            offsetCache.truncate(glyphCount * 2);
+        }
+
         // Remove exceeding glyphs from original array
         int glyphCountdown = glyphCharIndex;
         for(int i = 0; i < runs.size; i++) {
@@ -810,8 +2131,31 @@ public class TypingLabel extends Label {
             }
         }
 
-        // Pass new layout with custom glyphs to BitmapFontCache
-        cache.setText(layout, lastLayoutX, lastLayoutY);
+        // Glyphs that were already shown remain in the layout, so they don't need to be added again
+        cachedGlyphCharIndex = Math.min(glyphCharIndex, glyphCount - 1);
+        for(int i = 0; i <= cachedGlyphCharIndex; i++) {
+            glyphCache.get(i).internalIndex = i;
+        }
+
+        // Vertices of the new layout are written on the next draw, once missing glyphs are added
+        idleCacheValid = false;
+        verticesValid = false;
+    }
+
+    /**
+     * Matches the progression against the line breaks of a new layout, after the text changed in place. Until
+     * then, indices count each layout line break as a char, since each of them stands for a char without a glyph.
+     */
+    private void consumeLayoutLineBreaks() {
+        int typedChars = glyphCharIndex;
+        int passed = countLineBreaksBeforeChar(typedChars + 1);
+        layoutLineBreakIndex = passed;
+        glyphCharIndex = typedChars - passed;
+        for(int i = 0; i < activeEffects.size; i++) {
+            Effect effect = activeEffects.get(i);
+            effect.indexStart = charToGlyphIndex(effect.indexStart);
+            if(effect.indexEnd >= 0) effect.indexEnd = charToGlyphIndex(effect.indexEnd);
+        }
     }
 
     /** Adds cached glyphs to the active BitmapFontCache as the char index progresses. */
@@ -861,18 +2205,278 @@ public class TypingLabel extends Label {
         }
     }
 
-    @Override
-    public void draw(Batch batch, float parentAlpha) {
-        super.validate();
-        addMissingGlyphs();
+    /**
+     * Brings the vertices in the font cache, or the ones this label renders directly, up to date with the glyphs. They
+     * are only rebuilt after the layout changed, otherwise new glyphs are appended and only the glyphs whose offsets or
+     * color may have changed are compared, which are the ones effects were applied to since the previous draw and the
+     * one before it, or all of them if the label's color changed.
+     */
+    private void updateVertices(Color color, float packedColor) {
+        BitmapFontCache cache = getBitmapFontCache();
+        boolean integer = cache.usesIntegerPositions();
+        int glyphCount = cachedGlyphCharIndex + 1;
+        int dirtyStart = Math.min(effectRangeStart, lastEffectRangeStart);
+        int dirtyEnd = Math.max(effectRangeEnd, lastEffectRangeEnd);
+        int appendStart = verticesValid ? vertexGlyphCount : 0;
+        boolean rebuiltCache = !verticesValid && !directRendering;
+        rewrittenVertices = 0;
+
+        // Vertices rendered directly are placed at this label's position, while the cache is translated to it later
+        float offsetX = cache.getX(), offsetY = cache.getY();
+        boolean moved = false;
+        if(directRendering) {
+            moved = getX() != directX || getY() != directY;
+            directX = getX();
+            directY = getY();
+            offsetX = integer ? Math.round(directX) : directX;
+            offsetY = integer ? Math.round(directY) : directY;
+        }
 
-        // Update cache with new glyphs
-        BitmapFontCache bitmapFontCache = getBitmapFontCache();
-        getBitmapFontCache().setText(getGlyphLayout(), lastLayoutX, lastLayoutY);
+        if(rebuiltCache) {
+            // Rebuild the font cache, keeping track of what the vertices were written with
+            cache.clear();
+            addCacheVertices(getGlyphLayout(), 0);
+            for(int i = 0; i < glyphCount; i++) {
+                TypingGlyph glyph = glyphCache.get(i);
+                glyph.vertexXOffset = glyph.xoffset;
+                glyph.vertexYOffset = glyph.yoffset;
+                glyph.vertexColor = NumberUtils.intToFloatColor(glyph.runColor);
+            }
+            appendStart = glyphCount;
+            rewrittenVertices = glyphCount * 4;
+        } else if(directRendering) {
+            // Append new glyphs to the vertex arrays of their pages
+            if(!verticesValid) {
+                for(int i = 0; i < directVertexCounts.length; i++) {
+                    directVertexCounts[i] = 0;
+                }
+            }
+            if(glyphCount > appendStart) addDirectVertices(appendStart);
+        } else if(glyphCount > appendStart) {
+            // Append new glyphs to the font cache
+            if(appendLayout.runs.size == 0) {
+                appendLayout.runs.add(new GlyphRun());
+                appendLayout.colors.add(0, 0xFFFFFFFF);
+            }
+            GlyphRun appendRun = appendLayout.runs.first();
+            appendRun.glyphs.clear();
+            for(int i = appendStart; i < glyphCount; i++) {
+                appendRun.glyphs.add(glyphCache.get(i));
+            }
+            appendRun.xAdvances.setSize(appendRun.glyphs.size + 1);
+            addCacheVertices(appendLayout, appendStart);
+            cache.getLayouts().pop();
+        }
+
+        // Find which glyphs may need to be rewritten
+        if(rebuiltCache || moved || packedColor != vertexColor) {
+            dirtyStart = 0;
+            dirtyEnd = glyphCount - 1;
+        } else if(glyphCount > appendStart) {
+            dirtyStart = Math.min(dirtyStart, appendStart);
+            dirtyEnd = glyphCount - 1;
+        }
+        verticesValid = true;
+        vertexGlyphCount = glyphCount;
+        vertexColor = packedColor;
+        lastEffectRangeStart = effectRangeStart;
+        lastEffectRangeEnd = effectRangeEnd;
+        effectRangeStart = Integer.MAX_VALUE;
+        effectRangeEnd = -1;
+
+        // Rewrite glyphs whose offsets or color differ from their vertices
+        BitmapFont.BitmapFontData fontData = cache.getFont().getData();
+        float scaleX = fontData.scaleX, scaleY = fontData.scaleY;
+        float r = color.r, g = color.g, b = color.b, a = color.a;
+        boolean tinted = r != 1f || g != 1f || b != 1f || a != 1f;
+        for(int i = Math.max(0, dirtyStart), n = Math.min(dirtyEnd, glyphCount - 1); i <= n; i++) {
+            TypingGlyph glyph = glyphCache.get(i);
+            boolean appended = i >= appendStart;
+            float[] vertices = directRendering ? directVertices[glyph.page] : cache.getVertices(glyph.page);
+            int index = glyph.vertexIndex;
+            boolean rewritten = false;
+
+            // Texture coordinates, which the font cache already wrote
+            if(appended && directRendering) {
+                vertices[index + 3] = glyph.u;
+                vertices[index + 4] = glyph.v;
+                vertices[index + 8] = glyph.u;
+                vertices[index + 9] = glyph.v2;
+                vertices[index + 13] = glyph.u2;
+                vertices[index + 14] = glyph.v2;
+                vertices[index + 18] = glyph.u2;
+                vertices[index + 19] = glyph.v;
+            }
+
+            // Position, the same way the font cache does
+            if(appended || moved || glyph.xoffset != glyph.vertexXOffset || glyph.yoffset != glyph.vertexYOffset) {
+                float x = glyph.vertexX + glyph.xoffset * scaleX;
+                float y = glyph.vertexY + glyph.yoffset * scaleY;
+                float width = glyph.width * scaleX;
+                float height = glyph.height * scaleY;
+                if(integer) {
+                    x = Math.round(x);
+                    y = Math.round(y);
+                    width = Math.round(width);
+                    height = Math.round(height);
+                }
+                float x2 = x + width, y2 = y + height;
+                x += offsetX;
+                y += offsetY;
+                x2 += offsetX;
+                y2 += offsetY;
+                vertices[index] = x;
+                vertices[index + 1] = y;
+                vertices[index + 5] = x;
+                vertices[index + 6] = y2;
+                vertices[index + 10] = x2;
+                vertices[index + 11] = y2;
+                vertices[index + 15] = x2;
+                vertices[index + 16] = y;
+                glyph.vertexXOffset = glyph.xoffset;
+                glyph.vertexYOffset = glyph.yoffset;
+                rewritten = true;
+            }
+
+            // Color, multiplying this label's color (as its components) by the color of the individual glyph, if any
+            float glyphColor;
+            if(glyph.hasColor()) {
+                int bits = glyph.getColor();
+                if(tinted) {
+                    glyphColor = Color.toFloatBits(r * ((bits & 0xFF) / 255f), g * ((bits >>> 8 & 0xFF) / 255f), b * ((bits >>> 16 & 0xFF) / 255f), a * ((bits >>> 24) / 255f));
+                } else {
+                    glyphColor = NumberUtils.intToFloatColor(bits);
+                }
+            } else if(a < 1f) {
+                glyphColor = packedColor;
+            } else {
+                glyphColor = NumberUtils.intToFloatColor(glyph.runColor);
+            }
+            if(appended || glyphColor != glyph.vertexColor) {
+                vertices[index + 2] = glyphColor;
+                vertices[index + 7] = glyphColor;
+                vertices[index + 12] = glyphColor;
+                vertices[index + 17] = glyphColor;
+                glyph.vertexColor = glyphColor;
+                rewritten = true;
+            }
+
+            if(rewritten && !rebuiltCache) rewrittenVertices += 4;
+        }
+    }
+
+    /**
+     * Adds the vertices of the glyphs in the given layout to the font cache, with placeholder positions and colors, and
+     * locates the glyphs from the given index on.
+     */
+    private void addCacheVertices(GlyphLayout layout, int from) {
+        BitmapFontCache cache = getBitmapFontCache();
+
+        // Vertices are added to each page after the ones already there
+        int pageCount = cache.getFont().getRegions().size;
+        if(pageVertexCounts.length < pageCount) pageVertexCounts = new int[pageCount];
+        for(int i = 0; i < pageCount; i++) {
+            pageVertexCounts[i] = cache.getVertexCount(i);
+        }
+        cache.addText(layout, lastLayoutX, lastLayoutY);
+        locateVertices(from, pageVertexCounts);
+    }
 
+    /** Makes room for the vertices of the glyphs from the given index on in the direct vertex arrays, and locates them. */
+    private void addDirectVertices(int from) {
+        int pageCount = getBitmapFontCache().getFont().getRegions().size;
+        if(directVertices.length < pageCount) {
+            float[][] newVertices = new float[pageCount][];
+            int[] newCounts = new int[pageCount];
+            System.arraycopy(directVertices, 0, newVertices, 0, directVertices.length);
+            System.arraycopy(directVertexCounts, 0, newCounts, 0, directVertexCounts.length);
+            directVertices = newVertices;
+            directVertexCounts = newCounts;
+        }
+        locateVertices(from, directVertexCounts);
+
+        for(int i = 0; i < pageCount; i++) {
+            float[] vertices = directVertices[i];
+            int count = directVertexCounts[i];
+            if(vertices == null) {
+                directVertices[i] = new float[count];
+            } else if(vertices.length < count) {
+                float[] newVertices = new float[Math.max(count, vertices.length * 2)];
+                System.arraycopy(vertices, 0, newVertices, 0, vertices.length);
+                directVertices[i] = newVertices;
+            }
+        }
+    }
+
+    /**
+     * Finds where the vertices of each glyph from the given index on go, given how many vertex values each page already
+     * holds, along with the pen position they're laid out at, the same way the font cache does.
+     */
+    private void locateVertices(int from, int[] pageVertexCounts) {
+        BitmapFontCache cache = getBitmapFontCache();
+        Array<GlyphRun> runs = getGlyphLayout().runs;
+        float x = lastLayoutX, y = lastLayoutY + cache.getFont().getData().ascent;
+        int index = 0;
+        for(int i = 0; i < runs.size; i++) {
+            GlyphRun run = runs.get(i);
+            Array<Glyph> glyphs = run.glyphs;
+            if(index + glyphs.size <= from) {
+                index += glyphs.size;
+                continue;
+            }
+
+            float[] xAdvances = run.xAdvances.items;
+            float gx = x + run.x, gy = y + run.y;
+            for(int j = 0; j < glyphs.size; j++, index++) {
+                gx += xAdvances[j];
+                if(index < from) continue;
+                TypingGlyph glyph = (TypingGlyph) glyphs.get(j);
+                glyph.vertexX = gx;
+                glyph.vertexY = gy;
+                glyph.vertexIndex = pageVertexCounts[glyph.page];
+                pageVertexCounts[glyph.page] += 20;
+            }
+        }
+    }
+
+    /**
+     * Returns whether or not the bounds of this label, or of its text if it overflows them, intersect the viewport of
+     * its stage and the current scissor. A line of margin is left around them for effects that move glyphs.
+     */
+    private boolean isOnScreen(Batch batch) {
+        Stage stage = getStage();
+        if(stage == null) return true;
+
+        // Get bounds in the batch's coordinates
+        GlyphLayout layout = getGlyphLayout();
+        float margin = getBitmapFontCache().getFont().getLineHeight() * getFontScaleY();
+        float minX = Math.min(0, lastLayoutX) - margin;
+        float minY = Math.min(0, lastLayoutY - layout.height) - margin;
+        float maxX = Math.max(getWidth(), lastLayoutX + layout.width) + margin;
+        float maxY = Math.max(getHeight(), lastLayoutY) + margin;
+        tempBounds.set(getX() + minX, getY() + minY, maxX - minX, maxY - minY);
+
+        // Compare them in screen coordinates
+        Viewport viewport = stage.getViewport();
+        viewport.calculateScissors(batch.getTransformMatrix(), tempBounds, tempScissor);
+        tempBounds.set(viewport.getScreenX(), viewport.getScreenY(), viewport.getScreenWidth(), viewport.getScreenHeight());
+        if(!tempScissor.overlaps(tempBounds)) return false;
+        Rectangle scissors = ScissorStack.peekScissors();
+        return scissors == null || scissors.overlaps(tempScissor);
+    }
+
+    @Override
+    public void draw(Batch batch, float parentAlpha) {
         // --- SUPERCLASS IMPLEMENTATION ---
         // This section has to be copied from Label, since we can't call super.draw() without messing up our color.
         validate();
+
+        // Labels outside of the viewport or the current scissor skip drawing and updating their vertices
+        if(culling && !isOnScreen(batch)) return;
+        drawnSinceAct = true;
+
+        // Catch up on effects skipped while culled, now that this label is visible again
+        if(effectsPending) applyEffects(0, true);
         Color color = tempColor.set(getColor());
         color.a *= parentAlpha;
         if (getStyle().background != null) {
@@ -882,20 +2486,29 @@ public class TypingLabel extends Label {
         if (getStyle().fontColor != null) color.mul(getStyle().fontColor);
         // --- END OF SUPERCLASS IMPLEMENTATION ---
 
-        // Here we store color as its components, to avoid producing garbage and to allow modifying the local color.
-        float r = color.r, g = color.g, b = color.b, a = color.a;
-        for(TypingGlyph glyph : glyphCache) {
-            if (glyph.internalIndex >= 0) {
-                if (glyph.color != null) {
-                    // Unless we want to use a packed float, it's easiest to pass a Color object here, multiplying this
-                    // Label color (as its components) by the color of the individual glyph.
-                    bitmapFontCache.setColors(
-                            Color.toFloatBits(r * glyph.color.r, g * glyph.color.g, b * glyph.color.b, a * glyph.color.a),
-                            glyph.internalIndex, glyph.internalIndex + 1);
-                } else if(a < 1f) {
-                    bitmapFontCache.setColors(color, glyph.internalIndex, glyph.internalIndex + 1);
+        // Idle labels keep the vertices built in a previous frame, as long as their color and position are the same
+        BitmapFontCache bitmapFontCache = getBitmapFontCache();
+        float packedColor = color.toFloatBits();
+        boolean moved = directRendering && (getX() != directX || getY() != directY);
+        if(!idleCacheValid || packedColor != idleColor || moved || !isIdle()) {
+            // Update cache with new glyphs
+            addMissingGlyphs();
+            updateVertices(color, packedColor);
+            idleCacheValid = isIdle();
+            idleColor = packedColor;
+        } else {
+            rewrittenVertices = 0;
+        }
+
+        // Vertices rendered directly are already in place, and are submitted by page like the font cache does
+        if(directRendering) {
+            Array<TextureRegion> regions = bitmapFontCache.getFont().getRegions();
+            for(int i = 0; i < directVertexCounts.length; i++) {
+                if(directVertexCounts[i] > 0) {
+                    batch.draw(regions.get(i).getTexture(), directVertices[i], 0, directVertexCounts[i]);
                 }
             }
+            return;
         }
 
         // --- SUPERCLASS IMPLEMENTATION ---
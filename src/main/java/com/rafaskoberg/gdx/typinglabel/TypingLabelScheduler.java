@@ -0,0 +1,190 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BinaryHeap;
+
+/**
+ * Ticks the char progression and effects of many {@link TypingLabel}s in a single pass, instead of each of them doing
+ * it in {@link TypingLabel#act(float)}. Registered labels don't need to be in a {@link com.badlogic.gdx.scenes.scene2d.Stage}
+ * to type, but still need to be drawn, and their actions still run in {@code act}.
+ * <p>
+ * Labels are kept in three groups, so only the ones with something to do are ticked:
+ * <ul>
+ * <li>Active labels are ticked every {@link #update(float)}, such as the ones with running effects.</li>
+ * <li>Waiting labels are waiting for their next char, like during a {@code WAIT} token, and sit in a heap ordered by
+ * the time they're due. They're ticked once when that time comes, with all the time that passed since.</li>
+ * <li>Idle labels have ended or are paused, with no running effects. They're not ticked until they're restarted,
+ * resumed or changed.</li>
+ * </ul>
+ * Labels must not be added or removed from within {@link TypingListener} callbacks.
+ */
+public class TypingLabelScheduler {
+    private static final int NONE    = 0;
+    private static final int ACTIVE  = 1;
+    private static final int WAITING = 2;
+    private static final int IDLE    = 3;
+
+    private final Array<Entry>      active  = new Array<>(false, 16, Entry.class);
+    private final Array<Entry>      idle    = new Array<>(false, 16, Entry.class);
+    private final BinaryHeap<Entry> waiting = new BinaryHeap<>(); // Ordered by wake time
+    private       double            time    = 0; // Double so deltas don't lose precision as it grows
+
+    // Stats of the last update
+    private int processedLabels = 0;
+    private int processedChars  = 0;
+
+    /** Registers the given label, which stops ticking itself in {@link TypingLabel#act(float)}. */
+    public void add(TypingLabel label) {
+        if(label.schedulerEntry != null) {
+            if(label.schedulerEntry.scheduler == this) return;
+            label.schedulerEntry.scheduler.remove(label);
+        }
+        Entry entry = new Entry(this, label);
+        label.schedulerEntry = entry;
+        wake(entry);
+    }
+
+    /** Unregisters the given label, which goes back to ticking itself in {@link TypingLabel#act(float)}. */
+    public void remove(TypingLabel label) {
+        Entry entry = label.schedulerEntry;
+        if(entry == null || entry.scheduler != this) return;
+        detach(entry);
+        label.schedulerEntry = null;
+    }
+
+    /** Unregisters all labels. */
+    public void clear() {
+        for(int i = 0; i < active.size; i++) {
+            active.get(i).label.schedulerEntry = null;
+        }
+        for(int i = 0; i < idle.size; i++) {
+            idle.get(i).label.schedulerEntry = null;
+        }
+        while(waiting.size > 0) {
+            waiting.pop().label.schedulerEntry = null;
+        }
+        active.clear();
+        idle.clear();
+    }
+
+    /** Ticks all labels that have something to do, waking the waiting ones that are due. */
+    public void update(float delta) {
+        time += delta;
+        processedLabels = 0;
+        processedChars = 0;
+
+        // Wake labels whose wait is over
+        while(waiting.size > 0 && waiting.peek().wakeTime <= time) {
+            Entry entry = waiting.pop();
+            entry.list = NONE;
+            attach(entry, ACTIVE);
+        }
+
+        // Tick active labels, moving the ones that have nothing left to do for a while
+        for(int i = 0; i < active.size; ) {
+            Entry entry = active.get(i);
+            TypingLabel label = entry.label;
+            int rawCharIndex = label.getRawCharIndex();
+            float elapsed = (float) (time - entry.lastTick);
+            label.advance(elapsed, Math.min(elapsed, delta));
+            entry.lastTick = time;
+            processedLabels++;
+            processedChars += Math.max(0, label.getRawCharIndex() - rawCharIndex);
+
+            float sleepTime = label.getSleepTime();
+            if(sleepTime <= 0) {
+                i++;
+            } else {
+                detach(entry);
+                if(sleepTime == Float.POSITIVE_INFINITY) {
+                    attach(entry, IDLE);
+                } else {
+                    entry.list = WAITING;
+                    entry.wakeTime = time + sleepTime;
+                    waiting.add(entry, (float) entry.wakeTime);
+                }
+            }
+        }
+    }
+
+    /** Moves the given entry to the active list, since its label changed. */
+    void wake(Entry entry) {
+        if(entry.list == ACTIVE) return;
+
+        // Time spent idle doesn't count, unlike time spent waiting
+        if(entry.list != WAITING) entry.lastTick = time;
+        detach(entry);
+        attach(entry, ACTIVE);
+    }
+
+    /** Ticks the given entry with the time it's been waiting for so far, in case its label stops counting time. */
+    void settle(Entry entry) {
+        if(entry.list != WAITING) return;
+        float elapsed = (float) (time - entry.lastTick);
+        entry.label.advance(elapsed, elapsed);
+        entry.lastTick = time;
+    }
+
+    private void attach(Entry entry, int list) {
+        Array<Entry> array = list == ACTIVE ? active : idle;
+        entry.list = list;
+        entry.index = array.size;
+        array.add(entry);
+    }
+
+    private void detach(Entry entry) {
+        if(entry.list == WAITING) {
+            waiting.remove(entry);
+        } else if(entry.list != NONE) {
+            Array<Entry> array = entry.list == ACTIVE ? active : idle;
+            Entry last = array.pop();
+            if(last != entry) {
+                array.set(entry.index, last);
+                last.index = entry.index;
+            }
+        }
+        entry.list = NONE;
+    }
+
+    /** Returns how many labels are ticked every frame. */
+    public int getActiveCount() {
+        return active.size;
+    }
+
+    /** Returns how many labels are waiting for their next char. */
+    public int getWaitingCount() {
+        return waiting.size;
+    }
+
+    /** Returns how many labels are idle or paused, with no running effects. */
+    public int getIdleCount() {
+        return idle.size;
+    }
+
+    /** Returns how many labels were ticked in the last {@link #update(float)}. */
+    public int getProcessedLabels() {
+        return processedLabels;
+    }
+
+    /** Returns how many chars were processed in the last {@link #update(float)}. */
+    public int getProcessedChars() {
+        return processedChars;
+    }
+
+    /** Scheduling state of a label. */
+    static class Entry extends BinaryHeap.Node {
+        final TypingLabelScheduler scheduler;
+        final TypingLabel          label;
+        double                     lastTick; // Scheduler time the label was last ticked at
+        double                     wakeTime; // Scheduler time the label's next char is due at, while waiting
+        int                        list  = NONE;
+        int                        index = -1; // Index in the active or idle list
+
+        Entry(TypingLabelScheduler scheduler, TypingLabel label) {
+            super(0);
+            this.scheduler = scheduler;
+            this.label = label;
+        }
+    }
+
+}
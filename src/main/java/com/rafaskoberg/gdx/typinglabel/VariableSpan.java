@@ -0,0 +1,42 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+/**
+ * Region of a label's parsed text that was replaced by a {@code VAR} or {@code IF} token, so it can be updated in place
+ * when the variable changes. See {@link TypingLabel#refreshVariables()}.
+ */
+class VariableSpan {
+    TokenCategory category;
+    String        param;
+    String        value;
+    int           start;
+    int           end;
+    int           sequence;
+    boolean       spliceable;
+
+    /**
+     * @param category   Either {@link TokenCategory#VARIABLE} or {@link TokenCategory#IF}.
+     * @param param      Params of the token, used to resolve the value again.
+     * @param value      Text the token was replaced with.
+     * @param start      Index of the first char of the value in the parsed text.
+     * @param sequence   Amount of token entries registered before this span, in source order.
+     * @param spliceable Whether or not the value can be replaced without parsing the text again. That's not the case
+     *                   for values with tokens or color markup, values inside color markup tags, or values that came
+     *                   from another token's replacement.
+     */
+    VariableSpan(TokenCategory category, String param, String value, int start, int sequence, boolean spliceable) {
+        this.category = category;
+        this.param = param;
+        this.value = value;
+        this.start = start;
+        this.end = start + value.length();
+        this.sequence = sequence;
+        this.spliceable = spliceable;
+    }
+
+    /** Creates a copy of the given span. */
+    VariableSpan(VariableSpan other) {
+        this(other.category, other.param, other.value, other.start, other.sequence, other.spliceable);
+        this.end = other.end;
+    }
+
+}
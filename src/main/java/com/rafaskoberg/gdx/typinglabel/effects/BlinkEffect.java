@@ -4,6 +4,7 @@ package com.rafaskoberg.gdx.typinglabel.effects;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.MathUtils;
 import com.rafaskoberg.gdx.typinglabel.Effect;
+import com.rafaskoberg.gdx.typinglabel.EffectParams;
 import com.rafaskoberg.gdx.typinglabel.TypingGlyph;
 import com.rafaskoberg.gdx.typinglabel.TypingLabel;
 
@@ -11,38 +12,48 @@ import com.rafaskoberg.gdx.typinglabel.TypingLabel;
 public class BlinkEffect extends Effect {
     private static final float DEFAULT_FREQUENCY = 1f;
 
-    private Color color1    = null; // First color of the effect.
-    private Color color2    = null; // Second color of the effect.
+    private Color color1    = new Color(Color.WHITE); // First color of the effect.
+    private Color color2    = new Color(Color.WHITE); // Second color of the effect.
     private float frequency = 1; // How frequently the color pattern should move through the text.
     private float threshold = 0.5f; // Point to switch colors.
+    private int   color1Bits; // Colors packed as ABGR8888 ints.
+    private int   color2Bits;
 
+    /** @deprecated Use {@link #BlinkEffect(TypingLabel, EffectParams)} instead. */
+    @Deprecated
     public BlinkEffect(TypingLabel label, String[] params) {
+        this(label, new EffectParams(params));
+    }
+
+    public BlinkEffect(TypingLabel label, EffectParams params) {
         super(label);
 
         // Color 1
-        if(params.length > 0) {
-            this.color1 = paramAsColor(params[0]);
+        if(params.size() > 0) {
+            params.getColor(0, this.color1);
         }
 
         // Color 2
-        if(params.length > 1) {
-            this.color2 = paramAsColor(params[1]);
+        if(params.size() > 1) {
+            params.getColor(1, this.color2);
         }
 
         // Frequency
-        if(params.length > 2) {
-            this.frequency = paramAsFloat(params[2], 1);
+        if(params.size() > 2) {
+            this.frequency = params.getFloat(2, 1);
         }
 
         // Threshold
-        if(params.length > 3) {
-            this.threshold = paramAsFloat(params[3], 0.5f);
+        if(params.size() > 3) {
+            this.threshold = params.getFloat(3, 0.5f);
         }
 
         // Validate parameters
-        if(this.color1 == null) this.color1 = new Color(Color.WHITE);
-        if(this.color2 == null) this.color2 = new Color(Color.WHITE);
         this.threshold = MathUtils.clamp(this.threshold, 0, 1);
+
+        // Pack colors
+        this.color1Bits = color1.toIntBits();
+        this.color2Bits = color2.toIntBits();
     }
 
     @Override
@@ -52,8 +63,7 @@ public class BlinkEffect extends Effect {
         float progress = calculateProgress(frequencyMod);
 
         // Calculate color
-        if(glyph.color == null) glyph.color = new Color(Color.WHITE);
-        glyph.color.set(progress <= threshold ? color1 : color2);
+        glyph.setColor(progress <= threshold ? color1Bits : color2Bits);
     }
 
 }
@@ -5,8 +5,10 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.IntFloatMap;
 import com.rafaskoberg.gdx.typinglabel.Effect;
+import com.rafaskoberg.gdx.typinglabel.EffectParams;
 import com.rafaskoberg.gdx.typinglabel.TypingGlyph;
 import com.rafaskoberg.gdx.typinglabel.TypingLabel;
+import com.rafaskoberg.gdx.typinglabel.utils.ColorUtils;
 
 /** Fades the text's color from between colors or alphas. Doesn't repeat itself. */
 public class FadeEffect extends Effect {
@@ -18,28 +20,38 @@ public class FadeEffect extends Effect {
 
     private IntFloatMap timePassedByGlyphIndex = new IntFloatMap();
 
+    /** @deprecated Use {@link #FadeEffect(TypingLabel, EffectParams)} instead. */
+    @Deprecated
     public FadeEffect(TypingLabel label, String[] params) {
+        this(label, new EffectParams(params));
+    }
+
+    public FadeEffect(TypingLabel label, EffectParams params) {
         super(label);
 
         // Color 1 or Alpha 1
-        if(params.length > 0) {
-            this.color1 = paramAsColor(params[0]);
-            if(this.color1 == null) {
-                alpha1 = paramAsFloat(params[0], 0);
+        if(params.size() > 0) {
+            Color color = new Color();
+            if(params.getColor(0, color)) {
+                this.color1 = color;
+            } else {
+                alpha1 = params.getFloat(0, 0);
             }
         }
 
         // Color 2 or Alpha 2
-        if(params.length > 1) {
-            this.color2 = paramAsColor(params[1]);
-            if(this.color2 == null) {
-                alpha2 = paramAsFloat(params[1], 1);
+        if(params.size() > 1) {
+            Color color = new Color();
+            if(params.getColor(1, color)) {
+                this.color2 = color;
+            } else {
+                alpha2 = params.getFloat(1, 1);
             }
         }
 
         // Fade duration
-        if(params.length > 2) {
-            this.fadeDuration = paramAsFloat(params[2], 1);
+        if(params.size() > 2) {
+            this.fadeDuration = params.getFloat(2, 1);
         }
     }
 
@@ -49,24 +61,34 @@ public class FadeEffect extends Effect {
         float timePassed = timePassedByGlyphIndex.getAndIncrement(localIndex, 0, delta);
         float progress = MathUtils.clamp(timePassed / fadeDuration, 0, 1);
 
-        // Create glyph color if necessary
-        if(glyph.color == null) {
-            glyph.color = new Color(Integer.reverseBytes(glyph.runColor));
-        }
+        // Unpack glyph color, or the run's color if it doesn't have one yet
+        int color = glyph.getColor();
+        float r = (color & 0xFF) / 255f;
+        float g = (color >>> 8 & 0xFF) / 255f;
+        float b = (color >>> 16 & 0xFF) / 255f;
+        float a = (color >>> 24) / 255f;
 
         // Calculate initial color
+        float t = 1f - progress;
         if(this.color1 == null) {
-            glyph.color.a = MathUtils.lerp(glyph.color.a, this.alpha1, 1f - progress);
+            a = MathUtils.lerp(a, this.alpha1, t);
         } else {
-            glyph.color.lerp(this.color1, 1f - progress);
+            r += t * (color1.r - r);
+            g += t * (color1.g - g);
+            b += t * (color1.b - b);
+            a += t * (color1.a - a);
         }
 
         // Calculate final color
         if(this.color2 == null) {
-            glyph.color.a = MathUtils.lerp(glyph.color.a, this.alpha2, progress);
+            a = MathUtils.lerp(a, this.alpha2, progress);
         } else {
-            glyph.color.lerp(this.color2, progress);
+            r += progress * (color2.r - r);
+            g += progress * (color2.g - g);
+            b += progress * (color2.b - b);
+            a += progress * (color2.a - a);
         }
+        glyph.setColor(ColorUtils.toABGR8888(r, g, b, a));
     }
 
 }
@@ -3,45 +3,49 @@ package com.rafaskoberg.gdx.typinglabel.effects;
 
 import com.badlogic.gdx.graphics.Color;
 import com.rafaskoberg.gdx.typinglabel.Effect;
+import com.rafaskoberg.gdx.typinglabel.EffectParams;
 import com.rafaskoberg.gdx.typinglabel.TypingGlyph;
 import com.rafaskoberg.gdx.typinglabel.TypingLabel;
+import com.rafaskoberg.gdx.typinglabel.utils.ColorUtils;
 
 /** Tints the text in a gradient pattern. */
 public class GradientEffect extends Effect {
     private static final float DEFAULT_DISTANCE  = 0.975f;
     private static final float DEFAULT_FREQUENCY = 2f;
 
-    private Color color1    = null; // First color of the gradient.
-    private Color color2    = null; // Second color of the gradient.
+    private Color color1    = new Color(Color.WHITE); // First color of the gradient.
+    private Color color2    = new Color(Color.WHITE); // Second color of the gradient.
     private float distance  = 1; // How extensive the rainbow effect should be.
     private float frequency = 1; // How frequently the color pattern should move through the text.
 
+    /** @deprecated Use {@link #GradientEffect(TypingLabel, EffectParams)} instead. */
+    @Deprecated
     public GradientEffect(TypingLabel label, String[] params) {
+        this(label, new EffectParams(params));
+    }
+
+    public GradientEffect(TypingLabel label, EffectParams params) {
         super(label);
 
         // Color 1
-        if(params.length > 0) {
-            this.color1 = paramAsColor(params[0]);
+        if(params.size() > 0) {
+            params.getColor(0, this.color1);
         }
 
         // Color 2
-        if(params.length > 1) {
-            this.color2 = paramAsColor(params[1]);
+        if(params.size() > 1) {
+            params.getColor(1, this.color2);
         }
 
         // Distance
-        if(params.length > 2) {
-            this.distance = paramAsFloat(params[2], 1);
+        if(params.size() > 2) {
+            this.distance = params.getFloat(2, 1);
         }
 
         // Frequency
-        if(params.length > 3) {
-            this.frequency = paramAsFloat(params[3], 1);
+        if(params.size() > 3) {
+            this.frequency = params.getFloat(3, 1);
         }
-
-        // Validate parameters
-        if(this.color1 == null) this.color1 = new Color(Color.WHITE);
-        if(this.color2 == null) this.color2 = new Color(Color.WHITE);
     }
 
     @Override
@@ -52,8 +56,11 @@ public class GradientEffect extends Effect {
         float progress = calculateProgress(frequencyMod, distanceMod * localIndex, true);
 
         // Calculate color
-        if(glyph.color == null) glyph.color = new Color(Color.WHITE);
-        glyph.color.set(color1).lerp(color2, progress);
+        float r = color1.r + progress * (color2.r - color1.r);
+        float g = color1.g + progress * (color2.g - color1.g);
+        float b = color1.b + progress * (color2.b - color1.b);
+        float a = color1.a + progress * (color2.a - color1.a);
+        glyph.setColor(ColorUtils.toABGR8888(r, g, b, a));
     }
 
 }
@@ -5,6 +5,7 @@ import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.IntFloatMap;
 import com.rafaskoberg.gdx.typinglabel.Effect;
+import com.rafaskoberg.gdx.typinglabel.EffectParams;
 import com.rafaskoberg.gdx.typinglabel.TypingGlyph;
 import com.rafaskoberg.gdx.typinglabel.TypingLabel;
 
@@ -18,17 +19,23 @@ public class HangEffect extends Effect {
 
     private IntFloatMap timePassedByGlyphIndex = new IntFloatMap();
 
+    /** @deprecated Use {@link #HangEffect(TypingLabel, EffectParams)} instead. */
+    @Deprecated
     public HangEffect(TypingLabel label, String[] params) {
+        this(label, new EffectParams(params));
+    }
+
+    public HangEffect(TypingLabel label, EffectParams params) {
         super(label);
 
         // Distance
-        if(params.length > 0) {
-            this.distance = paramAsFloat(params[0], 1);
+        if(params.size() > 0) {
+            this.distance = params.getFloat(0, 1);
         }
 
         // Intensity
-        if(params.length > 1) {
-            this.intensity = paramAsFloat(params[1], 1);
+        if(params.size() > 1) {
+            this.intensity = params.getFloat(1, 1);
         }
     }
 
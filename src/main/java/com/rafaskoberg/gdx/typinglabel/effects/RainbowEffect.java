@@ -1,8 +1,8 @@
 
 package com.rafaskoberg.gdx.typinglabel.effects;
 
-import com.badlogic.gdx.graphics.Color;
 import com.rafaskoberg.gdx.typinglabel.Effect;
+import com.rafaskoberg.gdx.typinglabel.EffectParams;
 import com.rafaskoberg.gdx.typinglabel.TypingGlyph;
 import com.rafaskoberg.gdx.typinglabel.TypingLabel;
 import com.rafaskoberg.gdx.typinglabel.utils.ColorUtils;
@@ -17,27 +17,33 @@ public class RainbowEffect extends Effect {
     private float saturation = 1; // Color saturation
     private float brightness = 1; // Color brightness
 
+    /** @deprecated Use {@link #RainbowEffect(TypingLabel, EffectParams)} instead. */
+    @Deprecated
     public RainbowEffect(TypingLabel label, String[] params) {
+        this(label, new EffectParams(params));
+    }
+
+    public RainbowEffect(TypingLabel label, EffectParams params) {
         super(label);
 
         // Distance
-        if(params.length > 0) {
-            this.distance = paramAsFloat(params[0], 1);
+        if(params.size() > 0) {
+            this.distance = params.getFloat(0, 1);
         }
 
         // Frequency
-        if(params.length > 1) {
-            this.frequency = paramAsFloat(params[1], 1);
+        if(params.size() > 1) {
+            this.frequency = params.getFloat(1, 1);
         }
 
         // Saturation
-        if(params.length > 2) {
-            this.saturation = paramAsFloat(params[2], 1);
+        if(params.size() > 2) {
+            this.saturation = params.getFloat(2, 1);
         }
 
         // Brightness
-        if(params.length > 3) {
-            this.brightness = paramAsFloat(params[3], 1);
+        if(params.size() > 3) {
+            this.brightness = params.getFloat(3, 1);
         }
     }
 
@@ -48,11 +54,9 @@ public class RainbowEffect extends Effect {
         float frequencyMod = (1f / frequency) * DEFAULT_FREQUENCY;
         float progress = calculateProgress(frequencyMod, distanceMod * localIndex, false);
 
-        // Calculate color
-        if(glyph.color == null) {
-            glyph.color = new Color(Color.WHITE);
-        }
-        ColorUtils.HSVtoRGB(360f * progress, saturation * 100f, brightness * 100f, glyph.color);
+        // Calculate color, keeping the glyph's alpha
+        float alpha = glyph.hasColor() ? (glyph.getColor() >>> 24) / 255f : 1f;
+        glyph.setColor(ColorUtils.HSVtoABGR8888(360f * progress, saturation * 100f, brightness * 100f, alpha));
     }
 
 }
@@ -6,6 +6,7 @@ import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.FloatArray;
 import com.rafaskoberg.gdx.typinglabel.Effect;
+import com.rafaskoberg.gdx.typinglabel.EffectParams;
 import com.rafaskoberg.gdx.typinglabel.TypingGlyph;
 import com.rafaskoberg.gdx.typinglabel.TypingLabel;
 
@@ -19,22 +20,28 @@ public class ShakeEffect extends Effect {
     private float distance  = 1; // How far the glyphs should move
     private float intensity = 1; // How fast the glyphs should move
 
+    /** @deprecated Use {@link #ShakeEffect(TypingLabel, EffectParams)} instead. */
+    @Deprecated
     public ShakeEffect(TypingLabel label, String[] params) {
+        this(label, new EffectParams(params));
+    }
+
+    public ShakeEffect(TypingLabel label, EffectParams params) {
         super(label);
 
         // Distance
-        if(params.length > 0) {
-            this.distance = paramAsFloat(params[0], 1);
+        if(params.size() > 0) {
+            this.distance = params.getFloat(0, 1);
         }
 
         // Intensity
-        if(params.length > 1) {
-            this.intensity = paramAsFloat(params[1], 1);
+        if(params.size() > 1) {
+            this.intensity = params.getFloat(1, 1);
         }
 
         // Duration
-        if(params.length > 2) {
-            this.duration = paramAsFloat(params[2], -1);
+        if(params.size() > 2) {
+            this.duration = params.getFloat(2, -1);
         }
     }
 
@@ -50,8 +57,8 @@ public class ShakeEffect extends Effect {
         float lastY = lastOffsets.get(localIndex * 2 + 1);
 
         // Calculate new offsets
-        float x = getLineHeight() * distance * MathUtils.random(-1, 1) * DEFAULT_DISTANCE;
-        float y = getLineHeight() * distance * MathUtils.random(-1, 1) * DEFAULT_DISTANCE;
+        float x = getLineHeight() * distance * (label.getRandom().nextInt(3) - 1) * DEFAULT_DISTANCE;
+        float y = getLineHeight() * distance * (label.getRandom().nextInt(3) - 1) * DEFAULT_DISTANCE;
 
         // Apply intensity
         float normalIntensity = MathUtils.clamp(intensity * DEFAULT_INTENSITY, 0, 1);
@@ -5,6 +5,7 @@ import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
 import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.utils.IntArray;
 import com.rafaskoberg.gdx.typinglabel.Effect;
+import com.rafaskoberg.gdx.typinglabel.EffectParams;
 import com.rafaskoberg.gdx.typinglabel.TypingGlyph;
 import com.rafaskoberg.gdx.typinglabel.TypingLabel;
 
@@ -19,22 +20,28 @@ public class SickEffect extends Effect {
 
     private IntArray indices = new IntArray();
 
+    /** @deprecated Use {@link #SickEffect(TypingLabel, EffectParams)} instead. */
+    @Deprecated
     public SickEffect(TypingLabel label, String[] params) {
+        this(label, new EffectParams(params));
+    }
+
+    public SickEffect(TypingLabel label, EffectParams params) {
         super(label);
 
         // Distance
-        if(params.length > 0) {
-            this.distance = paramAsFloat(params[0], 1);
+        if(params.size() > 0) {
+            this.distance = params.getFloat(0, 1);
         }
 
         // Intensity
-        if(params.length > 1) {
-            this.intensity = paramAsFloat(params[1], 1);
+        if(params.size() > 1) {
+            this.intensity = params.getFloat(1, 1);
         }
 
         // Duration
-        if(params.length > 2) {
-            this.duration = paramAsFloat(params[2], -1);
+        if(params.size() > 2) {
+            this.duration = params.getFloat(2, -1);
         }
     }
 
@@ -45,7 +52,7 @@ public class SickEffect extends Effect {
         float progressOffset = localIndex / DEFAULT_FREQUENCY;
         float progress = calculateProgress(progressModifier, -progressOffset, false);
 
-        if(progress < .01f && Math.random() > .25f && !indices.contains(localIndex))
+        if(progress < .01f && label.getRandom().nextFloat() > .25f && !indices.contains(localIndex))
             indices.add(localIndex);
         if(progress > .95f)
             indices.removeValue(localIndex);
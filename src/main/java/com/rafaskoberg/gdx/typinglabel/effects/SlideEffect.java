@@ -5,6 +5,7 @@ import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.utils.IntFloatMap;
 import com.rafaskoberg.gdx.typinglabel.Effect;
+import com.rafaskoberg.gdx.typinglabel.EffectParams;
 import com.rafaskoberg.gdx.typinglabel.TypingGlyph;
 import com.rafaskoberg.gdx.typinglabel.TypingLabel;
 
@@ -19,22 +20,28 @@ public class SlideEffect extends Effect {
 
     private IntFloatMap timePassedByGlyphIndex = new IntFloatMap();
 
+    /** @deprecated Use {@link #SlideEffect(TypingLabel, EffectParams)} instead. */
+    @Deprecated
     public SlideEffect(TypingLabel label, String[] params) {
+        this(label, new EffectParams(params));
+    }
+
+    public SlideEffect(TypingLabel label, EffectParams params) {
         super(label);
 
         // Distance
-        if(params.length > 0) {
-            this.distance = paramAsFloat(params[0], 1);
+        if(params.size() > 0) {
+            this.distance = params.getFloat(0, 1);
         }
 
         // Intensity
-        if(params.length > 1) {
-            this.intensity = paramAsFloat(params[1], 1);
+        if(params.size() > 1) {
+            this.intensity = params.getFloat(1, 1);
         }
 
         // Elastic
-        if(params.length > 2) {
-            this.elastic = paramAsBoolean(params[2]);
+        if(params.size() > 2) {
+            this.elastic = params.getBoolean(2, false);
         }
     }
 
@@ -4,6 +4,7 @@ package com.rafaskoberg.gdx.typinglabel.effects;
 import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
 import com.badlogic.gdx.math.Interpolation;
 import com.rafaskoberg.gdx.typinglabel.Effect;
+import com.rafaskoberg.gdx.typinglabel.EffectParams;
 import com.rafaskoberg.gdx.typinglabel.TypingGlyph;
 import com.rafaskoberg.gdx.typinglabel.TypingLabel;
 
@@ -17,27 +18,33 @@ public class WaveEffect extends Effect {
     private float frequency = 1; // How frequently the wave pattern repeats
     private float intensity = 1; // How fast the glyphs should move
 
+    /** @deprecated Use {@link #WaveEffect(TypingLabel, EffectParams)} instead. */
+    @Deprecated
     public WaveEffect(TypingLabel label, String[] params) {
+        this(label, new EffectParams(params));
+    }
+
+    public WaveEffect(TypingLabel label, EffectParams params) {
         super(label);
 
         // Distance
-        if(params.length > 0) {
-            this.distance = paramAsFloat(params[0], 1);
+        if(params.size() > 0) {
+            this.distance = params.getFloat(0, 1);
         }
 
         // Frequency
-        if(params.length > 1) {
-            this.frequency = paramAsFloat(params[1], 1);
+        if(params.size() > 1) {
+            this.frequency = params.getFloat(1, 1);
         }
 
         // Intensity
-        if(params.length > 2) {
-            this.intensity = paramAsFloat(params[2], 1);
+        if(params.size() > 2) {
+            this.intensity = params.getFloat(2, 1);
         }
 
         // Duration
-        if(params.length > 3) {
-            this.duration = paramAsFloat(params[3], -1);
+        if(params.size() > 3) {
+            this.duration = params.getFloat(3, -1);
         }
     }
 
@@ -2,6 +2,7 @@
 package com.rafaskoberg.gdx.typinglabel.effects;
 
 import com.rafaskoberg.gdx.typinglabel.Effect;
+import com.rafaskoberg.gdx.typinglabel.EffectParams;
 import com.rafaskoberg.gdx.typinglabel.TypingGlyph;
 import com.rafaskoberg.gdx.typinglabel.TypingLabel;
 import com.rafaskoberg.gdx.typinglabel.utils.SimplexNoise;
@@ -15,7 +16,7 @@ public class WindEffect extends Effect {
     private static final float DISTANCE_Y_RATIO  = 1.0f;
     private static final float IDEAL_DELTA       = 60f;
 
-    private SimplexNoise noise        = new SimplexNoise(1, 0.5f, 1f);
+    private SimplexNoise noise        = new SimplexNoise(1, 0.5f, 1f, 0);
     private float        noiseCursorX = 0;
     private float        noiseCursorY = 0;
 
@@ -24,32 +25,39 @@ public class WindEffect extends Effect {
     private float spacing   = 1; // How much space there should be between waves
     private float intensity = 1; // How strong the wind should be
 
+    /** @deprecated Use {@link #WindEffect(TypingLabel, EffectParams)} instead. */
+    @Deprecated
     public WindEffect(TypingLabel label, String[] params) {
+        this(label, new EffectParams(params));
+    }
+
+    public WindEffect(TypingLabel label, EffectParams params) {
         super(label);
+        noise.generateNewOffset(label.getRandom());
 
         // Distance X
-        if(params.length > 0) {
-            this.distanceX = paramAsFloat(params[0], 1);
+        if(params.size() > 0) {
+            this.distanceX = params.getFloat(0, 1);
         }
 
         // Distance Y
-        if(params.length > 1) {
-            this.distanceY = paramAsFloat(params[1], 1);
+        if(params.size() > 1) {
+            this.distanceY = params.getFloat(1, 1);
         }
 
         // Spacing
-        if(params.length > 2) {
-            this.spacing = paramAsFloat(params[2], 1);
+        if(params.size() > 2) {
+            this.spacing = params.getFloat(2, 1);
         }
 
         // Intensity
-        if(params.length > 3) {
-            this.intensity = paramAsFloat(params[3], 1);
+        if(params.size() > 3) {
+            this.intensity = params.getFloat(3, 1);
         }
 
         // Duration
-        if(params.length > 4) {
-            this.duration = paramAsFloat(params[4], -1);
+        if(params.size() > 4) {
+            this.duration = params.getFloat(4, -1);
         }
     }
 
@@ -69,8 +69,31 @@ public class ColorUtils {
      * @return targetColor
      */
     public static Color HSVtoRGB(float h, float s, float v, Color targetColor) {
+        targetColor.set(HSVtoChannel(h, s, v, 0), HSVtoChannel(h, s, v, 1), HSVtoChannel(h, s, v, 2), targetColor.a);
+        return targetColor;
+    }
+
+    /**
+     * Converts HSV color system to RGB, without allocating a {@link Color}
+     *
+     * @param h     hue 0-360
+     * @param s     saturation 0-100
+     * @param v     value 0-100
+     * @param alpha 0-1
+     * @return RGB values packed as an ABGR8888 int
+     */
+    public static int HSVtoABGR8888(float h, float s, float v, float alpha) {
+        return toABGR8888(HSVtoChannel(h, s, v, 0), HSVtoChannel(h, s, v, 1), HSVtoChannel(h, s, v, 2), alpha);
+    }
+
+    /**
+     * Converts HSV color system to a single RGB channel
+     *
+     * @param channel 0 for red, 1 for green, 2 for blue
+     * @return channel value 0-1
+     */
+    private static float HSVtoChannel(float h, float s, float v, int channel) {
         if(h >= 360) h = 359.999f;
-        float r, g, b;
         int i;
         float f, p, q, t;
         h = (float) Math.max(0.0, Math.min(360.0, h));
@@ -86,38 +109,31 @@ public class ColorUtils {
         t = v * (1 - s * (1 - f));
         switch(i) {
             case 0:
-                r = v;
-                g = t;
-                b = p;
-                break;
+                return channel == 0 ? v : channel == 1 ? t : p;
             case 1:
-                r = q;
-                g = v;
-                b = p;
-                break;
+                return channel == 0 ? q : channel == 1 ? v : p;
             case 2:
-                r = p;
-                g = v;
-                b = t;
-                break;
+                return channel == 0 ? p : channel == 1 ? v : t;
             case 3:
-                r = p;
-                g = q;
-                b = v;
-                break;
+                return channel == 0 ? p : channel == 1 ? q : v;
             case 4:
-                r = t;
-                g = p;
-                b = v;
-                break;
+                return channel == 0 ? t : channel == 1 ? p : v;
             default:
-                r = v;
-                g = p;
-                b = q;
+                return channel == 0 ? v : channel == 1 ? p : q;
         }
+    }
 
-        targetColor.set(r, g, b, targetColor.a);
-        return targetColor;
+    /**
+     * Packs RGBA components into an ABGR8888 int, the same way {@link Color#toIntBits()} does
+     *
+     * @return ABGR8888 int, the format used by {@link com.rafaskoberg.gdx.typinglabel.TypingGlyph} colors
+     */
+    public static int toABGR8888(float r, float g, float b, float a) {
+        r = MathUtils.clamp(r, 0f, 1f);
+        g = MathUtils.clamp(g, 0f, 1f);
+        b = MathUtils.clamp(b, 0f, 1f);
+        a = MathUtils.clamp(a, 0f, 1f);
+        return ((int) (255 * a) << 24) | ((int) (255 * b) << 16) | ((int) (255 * g) << 8) | ((int) (255 * r));
     }
 
     /**
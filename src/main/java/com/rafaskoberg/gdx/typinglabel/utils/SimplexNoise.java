@@ -2,6 +2,8 @@ package com.rafaskoberg.gdx.typinglabel.utils;
 
 import com.badlogic.gdx.math.MathUtils;
 
+import java.util.Random;
+
 /**
  * A speed-improved simplex noise algorithm for 2D, 3D and 4D in Java.
  * <p>
@@ -98,7 +100,11 @@ public class SimplexNoise { // Simplex noise in 2D, 3D and 4D
     }
 
     public void generateNewOffset() {
-        this.offset = Short.MAX_VALUE * MathUtils.random(-1f, 1f);
+        generateNewOffset(MathUtils.random);
+    }
+
+    public void generateNewOffset(Random random) {
+        this.offset = Short.MAX_VALUE * (random.nextFloat() * 2f - 1f);
     }
 
     public float getRawNoise(float x, float y) {
@@ -0,0 +1,141 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
+import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Micro-benchmark comparing the char notifications of {@link TypingListener#onChar(Character)} against the primitive
+ * {@link CharListener#onChar(char, int)} and the batched {@link CharListener#onChars(CharSequence, int, int)}. Types
+ * the same text on many labels at once, with one listener each.
+ */
+public class CharListenerBenchmark extends ApplicationAdapter {
+    private static final int   WARMUP_ITERATIONS = 20;
+    private static final int   ITERATIONS        = 100;
+    private static final int   LABELS            = 200;
+    private static final float FRAME_TIME        = 1 / 60f;
+
+    private static final String TEXT = "Ça va? Déjà vu, señor! Über straße, naïve café. " //
+        + "The quick brown fox jumps over the lazy dog, again and again and again. ";
+
+    private static int revealedChars;
+
+    @Override
+    public void create() {
+        BitmapFont font = new BitmapFont(Gdx.files.internal("arial18.fnt"));
+        benchmark(font);
+        Gdx.app.exit();
+    }
+
+    /** Runs the benchmark with the given font and prints the results. */
+    public static void benchmark(BitmapFont font) {
+        // Reveal many chars per frame, where notifications matter the most
+        float speed = TypingConfig.DEFAULT_SPEED_PER_CHAR;
+        int charLimit = TypingConfig.CHAR_LIMIT_PER_FRAME;
+        TypingConfig.DEFAULT_SPEED_PER_CHAR = 0.001f;
+        TypingConfig.CHAR_LIMIT_PER_FRAME = -1;
+
+        StringBuilder text = new StringBuilder();
+        for(int i = 0; i < 20; i++) {
+            text.append(TEXT);
+        }
+        Array<TypingLabel> labels = new Array<>();
+        for(int i = 0; i < LABELS; i++) {
+            TypingLabel label = new TypingLabel(text, new LabelStyle(font, null));
+            label.setSize(400, 2000);
+            label.setWrap(true);
+            labels.add(label);
+        }
+
+        // Legacy listeners, boxing every char
+        TypingAdapter boxedListener = new TypingAdapter() {
+            @Override
+            public void onChar(Character ch) {
+                revealedChars++;
+            }
+        };
+
+        // Primitive listeners, called for every char
+        CharAdapter primitiveListener = new CharAdapter() {
+            @Override
+            public void onChar(char ch, int glyphIndex) {
+                revealedChars++;
+            }
+        };
+
+        // Batched listeners, called once per frame
+        CharAdapter batchedListener = new CharAdapter() {
+            @Override
+            public void onChars(CharSequence text, int start, int end) {
+                revealedChars += end - start;
+            }
+        };
+
+        run(labels, null, null, false, WARMUP_ITERATIONS);
+        run(labels, boxedListener, null, false, WARMUP_ITERATIONS);
+        run(labels, null, primitiveListener, true, WARMUP_ITERATIONS);
+        run(labels, null, batchedListener, false, WARMUP_ITERATIONS);
+        long noneNanos = run(labels, null, null, false, ITERATIONS);
+        long boxedNanos = run(labels, boxedListener, null, false, ITERATIONS);
+        long primitiveNanos = run(labels, null, primitiveListener, true, ITERATIONS);
+        long batchedNanos = run(labels, null, batchedListener, false, ITERATIONS);
+
+        System.out.println("Typing " + text.length() + " chars on " + LABELS + " labels, " + ITERATIONS + " times:");
+        System.out.println("  No listener: " + noneNanos / ITERATIONS / 1000f + " us per run");
+        System.out.println("  Boxed:       " + boxedNanos / ITERATIONS / 1000f + " us per run");
+        System.out.println("  Primitive:   " + primitiveNanos / ITERATIONS / 1000f + " us per run");
+        System.out.println("  Batched:     " + batchedNanos / ITERATIONS / 1000f + " us per run");
+        System.out.println("  Revealed chars: " + revealedChars);
+
+        // Restore state
+        TypingConfig.DEFAULT_SPEED_PER_CHAR = speed;
+        TypingConfig.CHAR_LIMIT_PER_FRAME = charLimit;
+    }
+
+    private static long run(Array<TypingLabel> labels, TypingListener typingListener, CharListener charListener, boolean perChar, int iterations) {
+        for(TypingLabel label : labels) {
+            label.clearTypingListeners();
+            label.clearCharListeners();
+            if(typingListener != null) label.addTypingListener(typingListener);
+            if(charListener != null) label.addCharListener(charListener, perChar);
+        }
+
+        long nanos = 0;
+        for(int i = 0; i < iterations; i++) {
+            for(TypingLabel label : labels) {
+                label.restart();
+                label.act(0);
+                label.validate();
+            }
+
+            // Only measure the char progression
+            long start = TimeUtils.nanoTime();
+            boolean ended = false;
+            while(!ended) {
+                ended = true;
+                for(int j = 0; j < labels.size; j++) {
+                    TypingLabel label = labels.get(j);
+                    label.act(FRAME_TIME);
+                    ended &= label.hasEnded();
+                }
+            }
+            nanos += TimeUtils.nanoTime() - start;
+        }
+        return nanos;
+    }
+
+    public static void main(String[] arg) {
+        LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
+        config.title = "CharListener Benchmark";
+        config.width = 320;
+        config.height = 180;
+        config.forceExit = false;
+        new LwjglApplication(new CharListenerBenchmark(), config);
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
+import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Micro-benchmark comparing labels rendered through their font cache against labels rendered directly from their own
+ * vertex arrays. Types an animated text on many labels at once, drawing them every frame while they scroll.
+ */
+public class DirectRenderingBenchmark extends ApplicationAdapter {
+    private static final int   WARMUP_ITERATIONS = 5;
+    private static final int   ITERATIONS        = 20;
+    private static final int   LABELS            = 100;
+    private static final float FRAME_TIME        = 1 / 60f;
+
+    private static final String TEXT = "{WAVE}Animated{ENDWAVE} labels {RAINBOW}typing{ENDRAINBOW} and scrolling, "
+        + "{SHAKE}again{ENDSHAKE} and {FADE}again{ENDFADE} and again, in a long enough text to wrap a few lines.";
+
+    @Override
+    public void create() {
+        BitmapFont font = new BitmapFont(Gdx.files.internal("arial18.fnt"));
+        SpriteBatch batch = new SpriteBatch();
+        benchmark(font, batch);
+        batch.dispose();
+        Gdx.app.exit();
+    }
+
+    /** Runs the benchmark with the given font and batch, and prints the results. */
+    public static void benchmark(BitmapFont font, Batch batch) {
+        Array<TypingLabel> labels = new Array<>();
+        for(int i = 0; i < LABELS; i++) {
+            TypingLabel label = new TypingLabel(TEXT, new LabelStyle(font, null));
+            label.setSize(300, 200);
+            label.setWrap(true);
+            labels.add(label);
+        }
+
+        run(labels, batch, false, WARMUP_ITERATIONS);
+        run(labels, batch, true, WARMUP_ITERATIONS);
+        long cacheNanos = run(labels, batch, false, ITERATIONS);
+        long directNanos = run(labels, batch, true, ITERATIONS);
+
+        System.out.println("Typing and drawing " + LABELS + " animated labels, " + ITERATIONS + " times:");
+        System.out.println("  Font cache: " + cacheNanos / ITERATIONS / 1000f + " us per run");
+        System.out.println("  Direct:     " + directNanos / ITERATIONS / 1000f + " us per run");
+    }
+
+    private static long run(Array<TypingLabel> labels, Batch batch, boolean directRendering, int iterations) {
+        for(TypingLabel label : labels) {
+            label.setDirectRendering(directRendering);
+        }
+
+        long nanos = 0;
+        for(int i = 0; i < iterations; i++) {
+            for(TypingLabel label : labels) {
+                label.restart();
+                label.setPosition(0, 0);
+                label.act(0);
+                label.validate();
+            }
+
+            // Type until all labels end, then keep the effects running for a while
+            long start = TimeUtils.nanoTime();
+            int endedFrames = 0;
+            for(int frame = 0; endedFrames < 60; frame++) {
+                boolean ended = true;
+                batch.begin();
+                for(int j = 0; j < labels.size; j++) {
+                    TypingLabel label = labels.get(j);
+                    label.setPosition(0, frame * 0.5f);
+                    label.act(FRAME_TIME);
+                    label.draw(batch, 1);
+                    ended &= label.hasEnded();
+                }
+                batch.end();
+                if(ended) endedFrames++;
+            }
+            nanos += TimeUtils.nanoTime() - start;
+        }
+        return nanos;
+    }
+
+    public static void main(String[] arg) {
+        LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
+        config.title = "Direct Rendering Benchmark";
+        config.width = 320;
+        config.height = 180;
+        config.forceExit = false;
+        new LwjglApplication(new DirectRenderingBenchmark(), config);
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
+import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.rafaskoberg.gdx.typinglabel.effects.WaveEffect;
+
+/**
+ * Micro-benchmark comparing effects created through an {@link EffectFactory} against effects registered by class only,
+ * which are created through a cached reflective constructor. Parses the same effect-heavy text with each of them.
+ */
+public class EffectFactoryBenchmark extends ApplicationAdapter {
+    private static final int WARMUP_ITERATIONS = 2000;
+    private static final int ITERATIONS        = 10000;
+    private static final int EFFECTS_PER_TEXT  = 200;
+
+    @Override
+    public void create() {
+        BitmapFont font = new BitmapFont(Gdx.files.internal("arial18.fnt"));
+        TypingLabel label = new TypingLabel("", new LabelStyle(font, null));
+        benchmark(label);
+        Gdx.app.exit();
+    }
+
+    /** Runs the benchmark with the given label and prints the results. */
+    public static void benchmark(TypingLabel label) {
+        // Register the same effect through both paths
+        TypingConfig.registerEffect("CWAVE", "ENDCWAVE", WaveEffect.class);
+        TypingConfig.registerEffect("FWAVE", "ENDFWAVE", WaveEffect.class, new EffectFactory() {
+            @Override
+            public Effect create(TypingLabel label, EffectParams params) {
+                return new WaveEffect(label, params);
+            }
+        });
+
+        // Parse every time
+        ParseCache parseCache = TypingConfig.PARSE_CACHE;
+        TypingConfig.PARSE_CACHE = null;
+
+        String constructorText = createText("CWAVE");
+        String factoryText = createText("FWAVE");
+        run(label, constructorText, WARMUP_ITERATIONS);
+        run(label, factoryText, WARMUP_ITERATIONS);
+        long constructorNanos = run(label, constructorText, ITERATIONS);
+        long factoryNanos = run(label, factoryText, ITERATIONS);
+
+        System.out.println("Parsing " + EFFECTS_PER_TEXT + " effects, " + ITERATIONS + " times:");
+        System.out.println("  Constructor: " + constructorNanos / ITERATIONS / 1000f + " us per text");
+        System.out.println("  Factory:     " + factoryNanos / ITERATIONS / 1000f + " us per text");
+
+        // Restore state
+        TypingConfig.PARSE_CACHE = parseCache;
+        TypingConfig.unregisterEffect("CWAVE", "ENDCWAVE");
+        TypingConfig.unregisterEffect("FWAVE", "ENDFWAVE");
+    }
+
+    private static String createText(String tokenName) {
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < EFFECTS_PER_TEXT; i++) {
+            sb.append('{').append(tokenName).append("=1;1;1}ab{END").append(tokenName).append('}');
+        }
+        return sb.toString();
+    }
+
+    private static long run(TypingLabel label, String text, int iterations) {
+        long start = TimeUtils.nanoTime();
+        for(int i = 0; i < iterations; i++) {
+            label.setText(text, true, false);
+            label.tokenEntries.clear();
+            Parser.parseTokens(label);
+        }
+        return TimeUtils.nanoTime() - start;
+    }
+
+    public static void main(String[] arg) {
+        LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
+        config.title = "EffectFactory Benchmark";
+        config.width = 320;
+        config.height = 180;
+        config.forceExit = false;
+        new LwjglApplication(new EffectFactoryBenchmark(), config);
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Check for {@link EffectParams#getFloat(int, float)}. Parses many random decimal strings, including values close to
+ * the halfway point between two floats, and makes sure the results are the same as {@link Float#parseFloat(String)}.
+ */
+public class EffectParamsCheck {
+    private static final int   ITERATIONS    = 1000000;
+    private static final float DEFAULT_VALUE = -12345f;
+
+    /** Runs the check and prints the results. Throws an exception if any value differs. */
+    public static void check() {
+        RandomXS128 random = new RandomXS128(42);
+        EffectParams params = new EffectParams();
+        StringBuilder text = new StringBuilder();
+        for(int i = 0; i < ITERATIONS; i++) {
+            text.setLength(0);
+            switch(i % 3) {
+                case 0:
+                    appendDecimal(text, random);
+                    break;
+                case 1:
+                    appendHalfway(text, random);
+                    break;
+                default:
+                    text.append(Float.intBitsToFloat(random.nextInt()));
+                    break;
+            }
+            String str = text.toString();
+            float expected = parseFloat(str);
+            float actual = params.set(str).getFloat(0, DEFAULT_VALUE);
+            if(Float.floatToIntBits(expected) != Float.floatToIntBits(actual)) {
+                throw new IllegalStateException("Parsed \"" + str + "\" as " + actual + " instead of " + expected + ".");
+            }
+        }
+
+        System.out.println("Parsed " + ITERATIONS + " random floats the same as Float.parseFloat.");
+    }
+
+    /** Appends a decimal with a random sign, amount of digits, decimal point and exponent. */
+    private static void appendDecimal(StringBuilder text, RandomXS128 random) {
+        if(random.nextInt(4) == 0) text.append(random.nextBoolean() ? '-' : '+');
+        int digits = 1 + random.nextInt(18);
+        int point = random.nextInt(digits + 1);
+        for(int d = 0; d < digits; d++) {
+            if(d == point) text.append('.');
+            text.append((char) ('0' + random.nextInt(10)));
+        }
+        if(random.nextInt(3) == 0) text.append('e').append(random.nextInt(61) - 30);
+        if(random.nextInt(8) == 0) text.append('f');
+    }
+
+    /** Appends a value close to the halfway point between two random floats, rounded to a random amount of digits. */
+    private static void appendHalfway(StringBuilder text, RandomXS128 random) {
+        float value = Math.abs(Float.intBitsToFloat(random.nextInt()));
+        if(Float.isNaN(value) || Float.isInfinite(value)) value = 1;
+        float next = Math.nextUp(value);
+        BigDecimal halfway = new BigDecimal(value).add(new BigDecimal(next)).divide(BigDecimal.valueOf(2));
+        text.append(halfway.round(new MathContext(1 + random.nextInt(12))).toString());
+    }
+
+    private static float parseFloat(String str) {
+        try {
+            return Float.parseFloat(str);
+        } catch(NumberFormatException e) {
+            return DEFAULT_VALUE;
+        }
+    }
+
+    public static void main(String[] arg) {
+        check();
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.rafaskoberg.gdx.typinglabel;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
+import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.scenes.scene2d.ui.Label.LabelStyle;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Regression check for the layout line breaks of wrapped labels. Types a long generated paragraph while its width keeps
+ * changing, and makes sure chars are still revealed in order, each of them once, without the glyph index skipping or
+ * going back. Exits with a non-zero code if the check fails.
+ */
+public class LineBreakRevealCheck extends ApplicationAdapter {
+    private static final int   TEXT_LENGTH     = 5400;
+    private static final int   RELAYOUT_FRAMES = 97;
+    private static final int   MAX_FRAMES      = 100000;
+    private static final float FRAME_TIME      = 1 / 60f;
+
+    private static final String[] WORDS = {
+        "the", "quick", "brown", "fox", "jumps", "over", "lazy", "dog", "typing", "label", "wraps", "around", "a",
+        "very", "long", "paragraph", "with", "many", "lines,", "and", "keeps", "going.", "Again!"
+    };
+
+    @Override
+    public void create() {
+        BitmapFont font = new BitmapFont(Gdx.files.internal("arial18.fnt"));
+        try {
+            check(font);
+        } catch(RuntimeException e) {
+            // Fail with a non-zero exit code, since the application would otherwise just log it
+            e.printStackTrace();
+            System.exit(1);
+        }
+        Gdx.app.exit();
+    }
+
+    /** Runs the check with the given font and prints the results. Throws an exception if the check fails. */
+    public static void check(BitmapFont font) {
+        // Generate a paragraph with a few effects and explicit line breaks
+        RandomXS128 random = new RandomXS128(42);
+        StringBuilder text = new StringBuilder();
+        while(text.length() < TEXT_LENGTH) {
+            int roll = random.nextInt(100);
+            if(roll < 2) {
+                text.append("\n");
+            } else if(roll < 4) {
+                text.append("{WAVE}").append(WORDS[random.nextInt(WORDS.length)]).append("{ENDWAVE} ");
+            } else {
+                text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+        }
+
+        // Record revealed chars and glyph indices
+        final StringBuilder revealedChars = new StringBuilder();
+        final IntArray glyphIndices = new IntArray();
+        TypingLabel label = new TypingLabel(text, new LabelStyle(font, null));
+        label.addCharListener(new CharAdapter() {
+            @Override
+            public void onChar(char ch, int glyphIndex) {
+                revealedChars.append(ch);
+                glyphIndices.add(glyphIndex);
+            }
+        }, true);
+        label.setSize(300, 20000);
+        label.setWrap(true);
+        label.act(0);
+        label.validate();
+
+        // Type the text, laying it out with a different width every now and then
+        int frames = 0;
+        while(!label.hasEnded() && frames < MAX_FRAMES) {
+            if(frames > 0 && frames % RELAYOUT_FRAMES == 0) {
+                label.setWidth(150 + random.nextInt(281));
+                label.validate();
+            }
+            label.act(FRAME_TIME);
+            frames++;
+        }
+
+        // Chars must be revealed in the same order as the stripped text
+        String expected = label.getText().toString();
+        if(!label.hasEnded()) {
+            throw new IllegalStateException("Label didn't end after " + frames + " frames.");
+        }
+        if(!expected.contentEquals(revealedChars)) {
+            int index = 0;
+            while(index < expected.length() && index < revealedChars.length() && expected.charAt(index) == revealedChars.charAt(index)) {
+                index++;
+            }
+            throw new IllegalStateException("Revealed chars differ from the stripped text at index " + index + ".");
+        }
+
+        // Glyph indices only advance one at a time, and stay still on line breaks
+        for(int i = 1; i < glyphIndices.size; i++) {
+            int step = glyphIndices.get(i) - glyphIndices.get(i - 1);
+            if(step < 0 || step > 1) {
+                throw new IllegalStateException("Glyph index jumped from " + glyphIndices.get(i - 1) + " to " + glyphIndices.get(i) + " at char " + i + ".");
+            }
+        }
+
+        System.out.println("Revealed " + revealedChars.length() + " chars in order over " + frames + " frames.");
+    }
+
+    public static void main(String[] arg) {
+        LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
+        config.title = "Line Break Reveal Check";
+        config.width = 320;
+        config.height = 180;
+        config.forceExit = false;
+        new LwjglApplication(new LineBreakRevealCheck(), config);
+    }
+
+}